@@ -2,6 +2,22 @@ plugins {
     alias(libs.plugins.android.application)
 }
 
+// Offline puzzle bank built from :sudoku-tools and packaged as an asset
+val puzzleBankTool: Configuration by configurations.creating {
+    isCanBeConsumed = false
+}
+val puzzleBankDir = layout.buildDirectory.dir("generated/puzzlebank")
+val buildPuzzleBank by tasks.registering(JavaExec::class) {
+    val perDifficulty = 10_000
+    val seed = 20_240_601L
+    classpath = puzzleBankTool
+    mainClass.set("com.example.sudokumaster.tools.BuildPuzzleBank")
+    args(puzzleBankDir.get().file("puzzles.bank").asFile.path, perDifficulty, seed)
+    inputs.property("perDifficulty", perDifficulty)
+    inputs.property("seed", seed)
+    outputs.dir(puzzleBankDir)
+}
+
 android {
     namespace = "com.example.sudokumaster"
     compileSdk = 36
@@ -32,16 +48,35 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    sourceSets {
+        getByName("main").assets.srcDir(puzzleBankDir)
+    }
+    testOptions {
+        // Robolectric tests inflate the real layouts and read the real colours
+        unitTests.isIncludeAndroidResources = true
+    }
+    androidResources {
+        // Stored uncompressed so PuzzleBank can memory-map it straight from the APK
+        noCompress += "bank"
+    }
+}
+
+tasks.named("preBuild") {
+    dependsOn(buildPuzzleBank)
 }
 
 dependencies {
 
+    implementation(project(":sudoku-core"))
+    puzzleBankTool(project(":sudoku-tools"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.constraintlayout)
     implementation(libs.navigation.fragment)
     implementation(libs.navigation.ui)
     testImplementation(libs.junit)
+    testImplementation(libs.test.core)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
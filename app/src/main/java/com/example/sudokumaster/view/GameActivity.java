@@ -2,17 +2,9 @@ package com.example.sudokumaster.view;
 
 import android.app.AlertDialog;
 import android.content.Intent;
-import android.graphics.Color;
-import android.graphics.Typeface;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.InputFilter;
-import android.text.InputType;
-import android.text.TextWatcher;
-import android.view.Gravity;
 import android.view.View;
 import android.widget.Button;
-import android.widget.EditText;
 import android.widget.GridLayout;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -21,17 +13,24 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.sudokumaster.R;
-import com.example.sudokumaster.model.SudokuCell;
+import com.example.sudokumaster.model.GameSession;
+import com.example.sudokumaster.model.Hint;
+import com.example.sudokumaster.model.TimerText;
+import com.example.sudokumaster.viewmodel.BoardChange;
 import com.example.sudokumaster.viewmodel.GameViewModel;
 
 import java.util.Locale;
 
 public class GameActivity extends AppCompatActivity {
     private GameViewModel viewModel;
-    private GridLayout gridLayout;
+    private SudokuBoardView boardView;
     private GridLayout numberPad;
     private TextView timerText;
-    private final EditText[][] cellViews = new EditText[9][9];
+    private TextView mistakesText;
+    // TextView wraps this array rather than copying it; every timer update
+    // rewrites it just before handing it over again
+    private final char[] timerChars = new char[TimerText.LENGTH];
+    private final Button[] numberButtons = new Button[9];
     private int selectedRow = -1, selectedCol = -1;
 
     @Override
@@ -40,21 +39,67 @@ public class GameActivity extends AppCompatActivity {
         setContentView(R.layout.activity_game);
 
         timerText = findViewById(R.id.timerText);
-        gridLayout = findViewById(R.id.sudokuGrid);
+        mistakesText = findViewById(R.id.mistakesText);
+        boardView = findViewById(R.id.sudokuBoard);
         numberPad = findViewById(R.id.numberPad);
 
         viewModel = new ViewModelProvider(this).get(GameViewModel.class);
+        setupBoard();
+        createNumberPad();
         setupObservers();
         setupButtons();
 
-        int difficulty = getIntent().getIntExtra("difficulty", 2);
-        viewModel.startGame(difficulty);
+        // Keep the game across configuration changes, resume it after process death
+        if (!viewModel.hasGame() && (savedInstanceState == null || !viewModel.restoreGame())) {
+            viewModel.startGame(getDifficulty());
+        }
+    }
+
+    private int getDifficulty() {
+        return getIntent().getIntExtra("difficulty", 2);
+    }
+
+    private void setupBoard() {
+        boardView.setBoardSource(new SudokuBoardView.BoardSource() {
+            @Override
+            public int getValue(int row, int col) {
+                return viewModel.getValue(row, col);
+            }
+
+            @Override
+            public boolean isFixed(int row, int col) {
+                return viewModel.isFixed(row, col);
+            }
+
+            @Override
+            public int getNotes(int row, int col) {
+                return viewModel.getNotes(row, col);
+            }
+
+            @Override
+            public boolean isConflict(int row, int col) {
+                // Wrong entries are flagged as soon as they are made, like clashes with peers
+                return viewModel.isConflict(row, col) || viewModel.isWrongEntry(row, col);
+            }
+        });
+
+        boardView.setListener(new SudokuBoardView.Listener() {
+            @Override
+            public void onCellSelected(int row, int col) {
+                boardView.clearHighlightedCells();
+                selectCell(row, col);
+                setupNumberPad(row, col);
+            }
 
-        gridLayout.post(this::renderBoard);
+            @Override
+            public void onDigitEntered(int row, int col, int digit) {
+                enterDigit(row, col, digit);
+            }
+        });
     }
 
     private void setupObservers() {
-        viewModel.getBoard().observe(this, this::updateBoardValues);
+        viewModel.getBoardChanges().observe(this, this::applyBoardChange);
         viewModel.getGameCompleted().observe(this, completed -> {
             if (completed) showWinDialog();
         });
@@ -64,35 +109,51 @@ public class GameActivity extends AppCompatActivity {
                 viewModel.clearErrorMessage();
             }
         });
-        viewModel.getTimeLeft().observe(this, timeLeft -> {
-            int min = (int) (timeLeft / 1000) / 60;
-            int sec = (int) (timeLeft / 1000) % 60;
-            timerText.setText(String.format(Locale.getDefault(), "%02d:%02d", min, sec));
-        });
+        viewModel.setTimerListener(seconds ->
+                timerText.setText(timerChars, 0, TimerText.format(seconds, timerChars)));
         viewModel.getTimeUp().observe(this, timeUp -> {
             if (timeUp) showTimeUpDialog();
         });
+        viewModel.getNotesMode().observe(this, notesMode -> {
+            ((Button) findViewById(R.id.btnNotes)).setText(notesMode ? R.string.notes_on : R.string.notes_off);
+            if (selectedRow >= 0 && numberPad.getVisibility() == View.VISIBLE) {
+                setupNumberPad(selectedRow, selectedCol);
+            }
+        });
+        viewModel.getJumpToFewest().observe(this, fewest ->
+                ((Button) findViewById(R.id.btnJump)).setText(fewest ? R.string.jump_fewest : R.string.jump_next));
+        viewModel.getMistakes().observe(this, mistakes ->
+                mistakesText.setText(getString(R.string.mistakes, mistakes)));
+        viewModel.getHint().observe(this, hint -> {
+            if (hint != null) {
+                showHint(hint);
+                viewModel.clearHint();
+            }
+        });
     }
 
     private void setupButtons() {
         findViewById(R.id.btnErase).setOnClickListener(v -> {
             if (selectedRow >= 0 && selectedCol >= 0) {
-                // Immediately clear the cell visually
-                if (cellViews[selectedRow][selectedCol] != null) {
-                    cellViews[selectedRow][selectedCol].setText("");
-                }
-                // Update ViewModel
                 viewModel.setCellValue(selectedRow, selectedCol, 0);
             } else {
                 Toast.makeText(this, "Select a cell to erase", Toast.LENGTH_SHORT).show();
             }
         });
 
+        findViewById(R.id.btnHint).setOnClickListener(v -> viewModel.requestHint());
+
+        findViewById(R.id.btnNotes).setOnClickListener(v -> viewModel.toggleNotesMode());
+        findViewById(R.id.btnJump).setOnClickListener(v -> viewModel.toggleJumpToFewest());
+
         findViewById(R.id.btnReset).setOnClickListener(v ->
                 new AlertDialog.Builder(this)
                         .setTitle("Reset Game")
                         .setMessage("Are you sure you want to reset the game? All progress will be lost.")
-                        .setPositiveButton("Yes", (dialog, which) -> recreate())
+                        .setPositiveButton("Yes", (dialog, which) -> {
+                            viewModel.resetBoard();
+                            numberPad.setVisibility(View.GONE);
+                        })
                         .setNegativeButton("Cancel", null)
                         .show()
         );
@@ -101,188 +162,79 @@ public class GameActivity extends AppCompatActivity {
         findViewById(R.id.btnUndo).setOnClickListener(v -> {
             int[] undoneCell = viewModel.undoLastMove();
             if (undoneCell[0] != -1) {
-                // Immediately update the undone cell
-                EditText undoCell = cellViews[undoneCell[0]][undoneCell[1]];
-                if (undoCell != null) {
-                    SudokuCell[][] board = viewModel.getBoard().getValue();
-                    if (board != null) {
-                        String value = board[undoneCell[0]][undoneCell[1]].value == 0 ?
-                                "" : String.valueOf(board[undoneCell[0]][undoneCell[1]].value);
-                        undoCell.setText(value);
-                    }
-                }
-                focusCell(undoneCell[0], undoneCell[1]);
+                // The undone value arrives through the board change observer
+                selectCell(undoneCell[0], undoneCell[1]);
                 numberPad.setVisibility(View.GONE);
             }
         });
-    }
 
-    private void renderBoard() {
-        gridLayout.removeAllViews();
-        gridLayout.setColumnCount(9);
-
-        int screenWidth = getResources().getDisplayMetrics().widthPixels;
-        int cellSize = (screenWidth - dpToPx(64)) / 9;
-
-        SudokuCell[][] board = viewModel.getBoard().getValue();
-        if (board == null) return;
-
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                cellViews[row][col] = createCell(row, col, cellSize, board[row][col]);
-                gridLayout.addView(cellViews[row][col]);
+        findViewById(R.id.btnRedo).setOnClickListener(v -> {
+            int[] redoneCell = viewModel.redoMove();
+            if (redoneCell[0] != -1) {
+                selectCell(redoneCell[0], redoneCell[1]);
+                numberPad.setVisibility(View.GONE);
             }
-        }
+        });
     }
 
-    private EditText createCell(int row, int col, int cellSize, SudokuCell sudokuCell) {
-        EditText cell = new EditText(this);
-
-        GridLayout.LayoutParams params = new GridLayout.LayoutParams();
-        params.width = cellSize;
-        params.height = cellSize;
-
-        int thick = dpToPx(3), thin = dpToPx(1);
-        params.setMargins(
-                (col % 3 == 0) ? thick : thin,
-                (row % 3 == 0) ? thick : thin,
-                (col == 8 || (col + 1) % 3 == 0) ? thick : thin,
-                (row == 8 || (row + 1) % 3 == 0) ? thick : thin
-        );
-
-        cell.setLayoutParams(params);
-        cell.setGravity(Gravity.CENTER);
-        cell.setTextSize(16);
-        cell.setTypeface(Typeface.DEFAULT_BOLD);
-
-        // CHANGED: Enable both keyboard and UI input
-        if (sudokuCell.isFixed) {
-            cell.setInputType(InputType.TYPE_NULL);
-            cell.setEnabled(false);
-            cell.setBackgroundResource(R.drawable.bg_fixed_cell);
-            cell.setTextColor(Color.WHITE);
-        } else {
-            // Allow keyboard input for editable cells
-            cell.setInputType(InputType.TYPE_CLASS_NUMBER);
-            cell.setBackgroundResource(R.drawable.bg_editable_cell);
-            cell.setTextColor(Color.WHITE);
-
-            // Set input filter to only allow single digits 1-9
-            cell.setFilters(new InputFilter[]{new InputFilter.LengthFilter(1)});
-
-            setupCellInput(cell, row, col);
+    // Handles digits typed on a hardware keyboard; 0 erases the cell
+    private void enterDigit(int row, int col, int digit) {
+        if (digit == 0) {
+            viewModel.setCellValue(row, col, 0);
+            return;
         }
-
-        if (sudokuCell.value != 0) {
-            cell.setText(String.valueOf(sudokuCell.value));
+        if (viewModel.isNotesMode()) {
+            viewModel.toggleNote(row, col, digit);
+            return;
         }
 
-        // Handle cell selection for both click and focus
-        cell.setOnClickListener(v -> {
-            if (!sudokuCell.isFixed) {
-                selectCell(row, col);
-                setupNumberPad(row, col);
-            }
-        });
-
-        cell.setOnFocusChangeListener((v, hasFocus) -> {
-            if (hasFocus && !sudokuCell.isFixed) {
-                selectCell(row, col);
-                setupNumberPad(row, col);
-            }
-        });
+        // Check if move is valid
+        if (!viewModel.isValidMove(row, col, digit)) {
+            viewModel.setErrorMessage("Invalid move! This number conflicts with Sudoku rules.");
+            return;
+        }
 
-        return cell;
+        viewModel.setCellValue(row, col, digit);
+        moveToNextCell(row, col);
     }
 
-    private void setupCellInput(EditText cell, int row, int col) {
-        cell.addTextChangedListener(new TextWatcher() {
-            private boolean isUpdating = false;
-
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {}
-
-            @Override
-            public void afterTextChanged(Editable s) {
-                if (isUpdating) return;
-
-                String input = s.toString().trim();
-
-                // Handle empty input (erase)
-                if (input.isEmpty()) {
-                    viewModel.setCellValue(row, col, 0);
-                    return;
-                }
-
-                // Validate input
-                if (input.length() > 1) {
-                    isUpdating = true;
-                    s.clear();
-                    isUpdating = false;
-                    viewModel.setErrorMessage("Please enter only one digit (1-9)");
-                    return;
-                }
-
-                char inputChar = input.charAt(0);
-                if (!Character.isDigit(inputChar) || inputChar == '0') {
-                    isUpdating = true;
-                    s.clear();
-                    isUpdating = false;
-                    viewModel.setErrorMessage("Please enter a valid number (1-9)");
-                    return;
-                }
-
-                int value = Character.getNumericValue(inputChar);
-
-                // Check if move is valid
-                if (!viewModel.isValidMove(row, col, value)) {
-                    isUpdating = true;
-                    s.clear();
-                    isUpdating = false;
-                    viewModel.setErrorMessage("Invalid move! This number conflicts with Sudoku rules.");
-                    return;
-                }
-
-                // Valid input - update the model
-                viewModel.setCellValue(row, col, value);
+    private void showHint(Hint hint) {
+        boardView.setHighlightedCells(hint.getSupportingCells());
+        selectCell(hint.getRow(), hint.getCol());
+        setupNumberPad(hint.getRow(), hint.getCol());
+
+        String message;
+        switch (hint.getKind()) {
+            case MISTAKE:
+                message = "This entry is wrong";
+                break;
+            case LOGIC:
+                message = "Try " + hint.getDigit() + " here (" + techniqueName(hint) + ")";
+                break;
+            default:
+                message = "Try " + hint.getDigit() + " here";
+                break;
+        }
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+    }
 
-                // Move to next empty cell
-                moveToNextCell(row, col);
-            }
-        });
+    private static String techniqueName(Hint hint) {
+        String name = hint.getTechnique().name().replace('_', ' ').toLowerCase(Locale.ROOT);
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
     }
 
     private void selectCell(int row, int col) {
-        // Clear previous selection
-        if (selectedRow >= 0 && selectedCol >= 0 && cellViews[selectedRow][selectedCol] != null) {
-            SudokuCell[][] board = viewModel.getBoard().getValue();
-            if (board != null && !board[selectedRow][selectedCol].isFixed) {
-                cellViews[selectedRow][selectedCol].setBackgroundResource(R.drawable.bg_editable_cell);
-                cellViews[selectedRow][selectedCol].setTextColor(Color.WHITE);
-            }
-        }
-
-        // Set new selection
         selectedRow = row;
         selectedCol = col;
-        if (cellViews[row][col] != null) {
-            cellViews[row][col].setBackgroundResource(R.drawable.bg_selected_cell);
-            cellViews[row][col].setTextColor(Color.BLACK);
-        }
+        boardView.setSelectedCell(row, col);
     }
 
-    private void setupNumberPad(int row, int col) {
-        numberPad.removeAllViews();
-        numberPad.setVisibility(View.VISIBLE);
+    // Builds the nine digit buttons once; selections only toggle them
+    private void createNumberPad() {
         numberPad.setColumnCount(3);
-
-        int[] validNumbers = viewModel.getValidNumbers(row, col);
         int buttonWidth = (getResources().getDisplayMetrics().widthPixels - dpToPx(64)) / 3;
 
-        for (int num : validNumbers) {
+        for (int num = 1; num <= 9; num++) {
             Button btn = new Button(this);
             btn.setText(String.valueOf(num));
             btn.setTextSize(18);
@@ -295,30 +247,41 @@ public class GameActivity extends AppCompatActivity {
 
             final int number = num;
             btn.setOnClickListener(v -> {
-                if (cellViews[row][col] != null) {
-                    cellViews[row][col].setText(String.valueOf(number));
-                }
+                int row = selectedRow, col = selectedCol;
+                if (row < 0 || col < 0) return;
 
+                // Notes mode keeps the pad open on the same cell
+                if (viewModel.isNotesMode()) {
+                    viewModel.toggleNote(row, col, number);
+                    return;
+                }
                 viewModel.setCellValue(row, col, number);
 
                 numberPad.setVisibility(View.GONE);
                 moveToNextCell(row, col);
             });
 
+            numberButtons[num - 1] = btn;
             numberPad.addView(btn);
         }
     }
 
+    private void setupNumberPad(int row, int col) {
+        int candidates = viewModel.isNotesMode() ? 0x1FF : viewModel.getCandidateMask(row, col);
+        for (int i = 0; i < 9; i++) {
+            numberButtons[i].setEnabled((candidates & (1 << i)) != 0);
+        }
+        numberPad.setVisibility(View.VISIBLE);
+    }
 
     private void moveToNextCell(int currentRow, int currentCol) {
         // Post to next frame to avoid blocking UI
-        gridLayout.post(() -> {
-            int[] nextCell = viewModel.findNextEmptyCell(currentRow, currentCol);
-            if (nextCell[0] != -1) {
-                focusCell(nextCell[0], nextCell[1]);
-                selectCell(nextCell[0], nextCell[1]);
+        boardView.post(() -> {
+            int nextCell = viewModel.findNextCell(currentRow, currentCol);
+            if (nextCell != GameSession.NO_CELL) {
+                selectCell(nextCell / 9, nextCell % 9);
                 // Show number pad for the next cell
-                setupNumberPad(nextCell[0], nextCell[1]);
+                setupNumberPad(nextCell / 9, nextCell % 9);
             } else {
                 // No more empty cells, hide number pad
                 numberPad.setVisibility(View.GONE);
@@ -326,31 +289,10 @@ public class GameActivity extends AppCompatActivity {
         });
     }
 
-    private void focusCell(int row, int col) {
-        if (cellViews[row][col] != null) {
-            cellViews[row][col].requestFocus();
-            selectCell(row, col);
-        }
-    }
-
-    private void updateBoardValues(SudokuCell[][] board) {
-        // Skip update if board is being rendered for first time
-        if (cellViews[0][0] == null) return;
-
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                EditText cell = cellViews[row][col];
-                if (cell != null && cell.isEnabled()) {
-                    String currentText = cell.getText().toString();
-                    String newValue = board[row][col].value == 0 ? "" : String.valueOf(board[row][col].value);
-
-                    // Update if different and cell is not focused (to avoid interfering with user input)
-                    if (!newValue.equals(currentText) && !cell.hasFocus()) {
-                        cell.setText(newValue);
-                    }
-                }
-            }
-        }
+    private void applyBoardChange(BoardChange change) {
+        // The board view reads cell values straight from the view model
+        boardView.clearHighlightedCells();
+        boardView.invalidate();
     }
 
     private void showTimeUpDialog() {
@@ -370,7 +312,11 @@ public class GameActivity extends AppCompatActivity {
                 .setTitle("Congratulations!")
                 .setMessage("You have successfully completed the Sudoku puzzle!")
                 .setCancelable(false)
-                .setPositiveButton("Play Again", (dialog, which) -> recreate())
+                .setPositiveButton("Play Again", (dialog, which) -> {
+                    numberPad.setVisibility(View.GONE);
+                    selectCell(-1, -1);
+                    viewModel.startGame(getDifficulty());
+                })
                 .setNegativeButton("Main Menu", (dialog, which) -> {
                     startActivity(new Intent(this, MainActivity.class));
                     finish();
@@ -382,10 +328,24 @@ public class GameActivity extends AppCompatActivity {
         return (int) (dp * getResources().getDisplayMetrics().density + 0.5f);
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        viewModel.resumeGame();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        viewModel.pauseGame();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (viewModel != null) {
+        if (viewModel != null) viewModel.setTimerListener(null);
+        // The timer outlives configuration changes along with the view model
+        if (viewModel != null && !isChangingConfigurations()) {
             viewModel.cleanup();
         }
     }
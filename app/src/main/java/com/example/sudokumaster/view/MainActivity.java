@@ -6,6 +6,7 @@ import android.widget.Button;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.sudokumaster.R;
+import com.example.sudokumaster.viewmodel.PuzzleSource;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -17,6 +18,9 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        // Open the puzzle bank, and warm the generator for any difficulty it has run out of
+        PuzzleSource.getInstance(this).prefill();
+
         easyBtn = findViewById(R.id.btn_easy);
         mediumBtn = findViewById(R.id.btn_medium);
         hardBtn = findViewById(R.id.btn_hard);
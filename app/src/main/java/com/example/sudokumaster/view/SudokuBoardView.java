@@ -0,0 +1,261 @@
+package com.example.sudokumaster.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.sudokumaster.R;
+
+/**
+ * Draws the whole 9x9 board on one canvas: cell backgrounds, givens, entries,
+ * the selected cell, conflicting entries, cells highlighted for a hint and
+ * the pencil marks of empty cells as a 3x3 grid of small digits, plus the
+ * grid lines. Paints and digit glyph metrics are set up once, so drawing
+ * does not allocate. Touches and hardware digit keys are turned into
+ * callbacks on {@link Listener}.
+ */
+public class SudokuBoardView extends View {
+
+    /** Where the view reads cell state from; called on every draw. */
+    public interface BoardSource {
+        int getValue(int row, int col);
+        boolean isFixed(int row, int col);
+        boolean isConflict(int row, int col);
+        /** Pencil marks of the cell as a 9-bit mask (bit 0 is digit 1). */
+        int getNotes(int row, int col);
+    }
+
+    public interface Listener {
+        void onCellSelected(int row, int col);
+        void onDigitEntered(int row, int col, int digit);
+    }
+
+    private static final char[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+    private static final int[] NO_CELLS = new int[0];
+
+    private final Paint fixedPaint = new Paint();
+    private final Paint editablePaint = new Paint();
+    private final Paint selectedPaint = new Paint();
+    private final Paint conflictPaint = new Paint();
+    private final Paint highlightPaint = new Paint();
+    private final Paint thinLinePaint = new Paint();
+    private final Paint thickLinePaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint selectedTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint notePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private BoardSource source;
+    private Listener listener;
+    private int selectedRow = -1, selectedCol = -1;
+    // Highlighted cells as an 81-bit set, cells 0-63 in lo and 64-80 in hi
+    private long highlightLo, highlightHi;
+
+    private float cellSize;
+    private float textBaseline;
+    private final float[] glyphOffsets = new float[10];
+    // Where each note digit sits inside its cell, from the top-left corner
+    private final float[] noteX = new float[10];
+    private final float[] noteY = new float[10];
+
+    public SudokuBoardView(Context context) {
+        this(context, null);
+    }
+
+    public SudokuBoardView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        fixedPaint.setColor(ContextCompat.getColor(context, R.color.cell_fixed));
+        editablePaint.setColor(ContextCompat.getColor(context, R.color.cell_editable));
+        selectedPaint.setColor(ContextCompat.getColor(context, R.color.cell_selected));
+        conflictPaint.setColor(ContextCompat.getColor(context, R.color.cell_conflict));
+        highlightPaint.setColor(ContextCompat.getColor(context, R.color.cell_hint));
+
+        int lineColor = ContextCompat.getColor(context, R.color.black);
+        float density = getResources().getDisplayMetrics().density;
+        thinLinePaint.setColor(lineColor);
+        thinLinePaint.setStrokeWidth(density);
+        thickLinePaint.setColor(lineColor);
+        thickLinePaint.setStrokeWidth(3 * density);
+
+        textPaint.setColor(ContextCompat.getColor(context, R.color.cell_text));
+        textPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        selectedTextPaint.setColor(ContextCompat.getColor(context, R.color.black));
+        selectedTextPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        notePaint.setColor(ContextCompat.getColor(context, R.color.cell_text));
+
+        setFocusable(true);
+        setFocusableInTouchMode(true);
+    }
+
+    public void setBoardSource(BoardSource source) {
+        this.source = source;
+        invalidate();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setSelectedCell(int row, int col) {
+        if (row == selectedRow && col == selectedCol) return;
+        selectedRow = row;
+        selectedCol = col;
+        invalidate();
+    }
+
+    /** Highlights the given cells (row * 9 + col), replacing any earlier highlight. */
+    public void setHighlightedCells(int[] cells) {
+        long lo = 0, hi = 0;
+        for (int cell : cells) {
+            if (cell < 64) lo |= 1L << cell;
+            else hi |= 1L << (cell - 64);
+        }
+        if (lo == highlightLo && hi == highlightHi) return;
+        highlightLo = lo;
+        highlightHi = hi;
+        invalidate();
+    }
+
+    public void clearHighlightedCells() {
+        setHighlightedCells(NO_CELLS);
+    }
+
+    private boolean isHighlighted(int cell) {
+        return cell < 64 ? (highlightLo & 1L << cell) != 0 : (highlightHi & 1L << (cell - 64)) != 0;
+    }
+
+    public int getSelectedRow() {
+        return selectedRow;
+    }
+
+    public int getSelectedCol() {
+        return selectedCol;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = MeasureSpec.getMode(heightMeasureSpec) == MeasureSpec.UNSPECIFIED
+                ? width : MeasureSpec.getSize(heightMeasureSpec);
+        int size = Math.min(width, height);
+        setMeasuredDimension(size, size);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        cellSize = Math.min(w, h) / 9f;
+        textPaint.setTextSize(cellSize * 0.55f);
+        selectedTextPaint.setTextSize(cellSize * 0.55f);
+
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        textBaseline = (cellSize - metrics.ascent - metrics.descent) / 2f;
+        for (int digit = 1; digit <= 9; digit++) {
+            glyphOffsets[digit] = (cellSize - textPaint.measureText(DIGITS, digit, 1)) / 2f;
+        }
+
+        float third = cellSize / 3f;
+        notePaint.setTextSize(third * 0.8f);
+        Paint.FontMetrics noteMetrics = notePaint.getFontMetrics();
+        float noteBaseline = (third - noteMetrics.ascent - noteMetrics.descent) / 2f;
+        for (int digit = 1; digit <= 9; digit++) {
+            noteX[digit] = (digit - 1) % 3 * third + (third - notePaint.measureText(DIGITS, digit, 1)) / 2f;
+            noteY[digit] = (digit - 1) / 3 * third + noteBaseline;
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (source == null || cellSize == 0) return;
+
+        for (int row = 0; row < 9; row++) {
+            float top = row * cellSize;
+            for (int col = 0; col < 9; col++) {
+                float left = col * cellSize;
+                boolean selected = row == selectedRow && col == selectedCol;
+                boolean fixed = source.isFixed(row, col);
+
+                Paint background = selected ? selectedPaint
+                        : source.isConflict(row, col) ? conflictPaint
+                        : isHighlighted(row * 9 + col) ? highlightPaint
+                        : fixed ? fixedPaint : editablePaint;
+                canvas.drawRect(left, top, left + cellSize, top + cellSize, background);
+
+                int value = source.getValue(row, col);
+                if (value != 0) {
+                    canvas.drawText(DIGITS, value, 1, left + glyphOffsets[value], top + textBaseline,
+                            selected ? selectedTextPaint : textPaint);
+                } else {
+                    drawNotes(canvas, source.getNotes(row, col), left, top, selected);
+                }
+            }
+        }
+
+        float size = cellSize * 9;
+        for (int i = 0; i <= 9; i++) {
+            Paint line = i % 3 == 0 ? thickLinePaint : thinLinePaint;
+            float offset = Math.min(i * cellSize, size - line.getStrokeWidth() / 2);
+            offset = Math.max(offset, line.getStrokeWidth() / 2);
+            canvas.drawLine(offset, 0, offset, size, line);
+            canvas.drawLine(0, offset, size, offset, line);
+        }
+    }
+
+    private void drawNotes(Canvas canvas, int notes, float left, float top, boolean selected) {
+        notePaint.setColor(selected ? selectedTextPaint.getColor() : textPaint.getColor());
+        for (; notes != 0; notes &= notes - 1) {
+            int digit = Integer.numberOfTrailingZeros(notes) + 1;
+            canvas.drawText(DIGITS, digit, 1, left + noteX[digit], top + noteY[digit], notePaint);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (event.getAction() == MotionEvent.ACTION_DOWN) {
+            return true;
+        }
+        if (event.getAction() != MotionEvent.ACTION_UP || cellSize == 0) {
+            return super.onTouchEvent(event);
+        }
+
+        int row = (int) (event.getY() / cellSize);
+        int col = (int) (event.getX() / cellSize);
+        if (row < 0 || row > 8 || col < 0 || col > 8) return true;
+
+        requestFocus();
+        if (source != null && !source.isFixed(row, col)) {
+            setSelectedCell(row, col);
+            if (listener != null) listener.onCellSelected(row, col);
+        }
+        performClick();
+        return true;
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        if (selectedRow < 0 || listener == null) {
+            return super.onKeyDown(keyCode, event);
+        }
+        if (keyCode >= KeyEvent.KEYCODE_1 && keyCode <= KeyEvent.KEYCODE_9) {
+            listener.onDigitEntered(selectedRow, selectedCol, keyCode - KeyEvent.KEYCODE_0);
+            return true;
+        }
+        if (keyCode == KeyEvent.KEYCODE_DEL || keyCode == KeyEvent.KEYCODE_0) {
+            listener.onDigitEntered(selectedRow, selectedCol, 0);
+            return true;
+        }
+        return super.onKeyDown(keyCode, event);
+    }
+}
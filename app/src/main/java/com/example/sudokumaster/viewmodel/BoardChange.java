@@ -0,0 +1,13 @@
+package com.example.sudokumaster.viewmodel;
+
+/**
+ * Published by {@link GameViewModel} whenever cells change, saying why. The
+ * board view reads every cell from the view model when it redraws, so the
+ * signal carries no cell data and publishing it does not allocate. A batch
+ * of changes (a jump through the history, a reset) is published once.
+ */
+public enum BoardChange {
+    MOVE, ERASE, NOTE, UNDO, REDO, JUMP, RESET,
+    /** A new or restored puzzle replaced the whole board. */
+    LOAD
+}
@@ -1,148 +1,429 @@
 package com.example.sudokumaster.viewmodel;
 
-import android.os.CountDownTimer;
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-import com.example.sudokumaster.model.SudokuModel;
+import com.example.sudokumaster.model.GameSession;
+import com.example.sudokumaster.model.GameSnapshot;
+import com.example.sudokumaster.model.Hint;
+import com.example.sudokumaster.model.HintEngine;
+import com.example.sudokumaster.model.Puzzle;
+import com.example.sudokumaster.model.SnapshotStore;
 import com.example.sudokumaster.model.SudokuCell;
-import com.example.sudokumaster.model.SudokuGenerator;
-import com.example.sudokumaster.model.SudokuUtils;
 
-import java.util.Stack;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class GameViewModel extends ViewModel {
-    private final SudokuModel model = new SudokuModel();
+public class GameViewModel extends AndroidViewModel {
+
+    /** Receives the whole seconds left on the main thread, unboxed since it fires every second. */
+    public interface TimerListener {
+        void onTimeLeft(int seconds);
+    }
+
+    // Shared by every view model, so all saves go through one writer thread
+    private static SnapshotStore sharedStore;
+
+    private final GameSession session = new GameSession(SystemClock::elapsedRealtime);
+    private final SnapshotStore snapshotStore;
     private final MutableLiveData<SudokuCell[][]> boardLiveData = new MutableLiveData<>();
+    private final MutableLiveData<BoardChange> boardChangeLiveData = new MutableLiveData<>();
     private final MutableLiveData<Boolean> gameCompletedLiveData = new MutableLiveData<>();
     private final MutableLiveData<String> errorMessageLiveData = new MutableLiveData<>();
-    private final MutableLiveData<Long> timeLeftLiveData = new MutableLiveData<>();
     private final MutableLiveData<Boolean> timeUpLiveData = new MutableLiveData<>();
+    private final MutableLiveData<Hint> hintLiveData = new MutableLiveData<>();
+    private final MutableLiveData<Integer> mistakesLiveData = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> notesModeLiveData = new MutableLiveData<>(false);
+    private final MutableLiveData<Boolean> jumpToFewestLiveData = new MutableLiveData<>(false);
+
+    // The engine is only used on hintExecutor; results come back through mainHandler
+    private final HintEngine hintEngine = new HintEngine();
+    private final ExecutorService hintExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hints");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Runnable tick = this::tick;
+    private TimerListener timerListener;
+    private int shownSeconds = -1;
+    private BoardChange pendingBatch;
+    private boolean batchChanged;
+    private boolean gameActive;
+    private Hint cachedHint;
+    private int cachedHintVersion, pendingHintVersion = -1;
+
+    public GameViewModel(@NonNull Application application) {
+        super(application);
+        snapshotStore = snapshotStore(application);
+    }
 
-    private final Stack<Move> moveStack = new Stack<>();
-    private CountDownTimer timer;
+    private static synchronized SnapshotStore snapshotStore(Application application) {
+        if (sharedStore == null) {
+            sharedStore = new SnapshotStore(new File(application.getFilesDir(), "game.snapshot"));
+        }
+        return sharedStore;
+    }
 
     public void startGame(int difficulty) {
-        SudokuGenerator generator = new SudokuGenerator();
-        int[][] generated = generator.generate(difficulty);
-        model.generateBoard(generated);
+        Puzzle generated = PuzzleSource.getInstance(getApplication()).next(difficulty);
+        session.start(generated, difficulty);
+        onPuzzleLoaded();
+        gameActive = true;
+        saveGame();
 
-        moveStack.clear();
         gameCompletedLiveData.setValue(false);
         timeUpLiveData.setValue(false);
 
-        long timeLeft = difficulty == 1 ? 900_000 : difficulty == 3 ? 420_000 : 600_000;
-        startTimer(timeLeft);
+        startTimer();
 
-        boardLiveData.setValue(model.getBoard());
+        boardLiveData.setValue(session.getModel().getBoard());
+        boardChangeLiveData.setValue(BoardChange.LOAD);
     }
 
-    private void startTimer(long timeLeft) {
-        if (timer != null) timer.cancel();
+    /**
+     * Resumes the game saved before the process was killed. Returns false if
+     * there is no unfinished game to resume.
+     */
+    public boolean restoreGame() {
+        GameSnapshot snapshot = snapshotStore.load();
+        if (snapshot == null) return false;
+        if (snapshot.getRemainingMillis() == 0) {
+            // Out of time: nothing left to resume, so stop reading it on every launch
+            snapshotStore.clear();
+            return false;
+        }
 
-        timer = new CountDownTimer(timeLeft, 1000) {
-            @Override
-            public void onTick(long millisUntilFinished) {
-                timeLeftLiveData.setValue(millisUntilFinished);
-            }
+        session.restore(snapshot);
+        onPuzzleLoaded();
+        if (session.isCompleted()) {
+            snapshotStore.clear();
+            return false;
+        }
+        gameActive = true;
 
-            @Override
-            public void onFinish() {
-                timeUpLiveData.setValue(true);
-            }
-        };
-        timer.start();
+        gameCompletedLiveData.setValue(false);
+        timeUpLiveData.setValue(false);
+
+        startTimer();
+
+        boardLiveData.setValue(session.getModel().getBoard());
+        boardChangeLiveData.setValue(BoardChange.LOAD);
+        return true;
+    }
+
+    /** Whether this view model already holds a game, e.g. after a configuration change. */
+    public boolean hasGame() {
+        return boardLiveData.getValue() != null;
+    }
+
+    /** Queues a snapshot of the running game; finished games are not saved. */
+    public void saveGame() {
+        if (gameActive) snapshotStore.save(session.snapshot());
+    }
+
+    private void onPuzzleLoaded() {
+        mistakesLiveData.setValue(session.getMistakeCount());
+        cachedHint = null;
+        pendingHintVersion = -1;
+    }
+
+    /**
+     * Works out a hint on a background thread and publishes it through
+     * {@link #getHint()}. The last hint is reused while the board is unchanged,
+     * and a request while one is being computed for the same board is ignored.
+     */
+    public void requestHint() {
+        int version = session.getModel().getVersion();
+        if (cachedHint != null && cachedHintVersion == version) {
+            hintLiveData.setValue(cachedHint);
+            return;
+        }
+        if (pendingHintVersion == version) return;
+        pendingHintVersion = version;
+
+        int[][] board = session.getModel().copyValues();
+        byte[] knownSolution = session.getModel().getSolution();
+        hintExecutor.execute(() -> {
+            Hint hint = hintEngine.findHint(board, knownSolution);
+            mainHandler.post(() -> deliverHint(version, hint));
+        });
+    }
+
+    private void deliverHint(int version, Hint hint) {
+        if (pendingHintVersion != version) return;
+        pendingHintVersion = -1;
+        // The board changed while the hint was computed, so it may no longer apply
+        if (version != session.getModel().getVersion()) return;
+
+        if (hint == null) {
+            errorMessageLiveData.setValue("No hint available");
+            return;
+        }
+        cachedHint = hint;
+        cachedHintVersion = version;
+        hintLiveData.setValue(hint);
+    }
+
+    public void clearHint() {
+        hintLiveData.setValue(null);
+    }
+
+    /** True when the cell holds an entry that differs from the puzzle's solution. */
+    public boolean isWrongEntry(int row, int col) {
+        return session.isWrong(row, col);
+    }
+
+    private void endGame() {
+        gameActive = false;
+        snapshotStore.clear();
+    }
+
+    private void startTimer() {
+        stopTimer();
+        shownSeconds = -1;
+        tick();
+    }
+
+    private void stopTimer() {
+        mainHandler.removeCallbacks(tick);
+    }
+
+    /**
+     * Publishes the remaining seconds when they change and sleeps until the
+     * next change, reading the time from the session's monotonic clock each
+     * time so delayed ticks never drift.
+     */
+    private void tick() {
+        int seconds = session.getRemainingSeconds();
+        if (seconds != shownSeconds) {
+            shownSeconds = seconds;
+            if (timerListener != null) timerListener.onTimeLeft(seconds);
+        }
+        if (session.isTimeUp()) {
+            endGame();
+            timeUpLiveData.setValue(true);
+            return;
+        }
+        long delay = session.getMillisUntilNextSecond();
+        if (delay > 0) mainHandler.postDelayed(tick, delay);
+    }
+
+    /** Stops the countdown and saves the game, e.g. when the app leaves the screen. */
+    public void pauseGame() {
+        if (!gameActive) return;
+        session.pause();
+        stopTimer();
+        saveGame();
+    }
+
+    public void resumeGame() {
+        if (!gameActive || !session.isPaused()) return;
+        session.resume();
+        startTimer();
     }
 
     public boolean isValidMove(int row, int col, int value) {
-        return model.isMoveValid(row, col, value);
+        return session.isMoveValid(row, col, value);
     }
 
     public void setCellValue(int row, int col, int value) {
-        SudokuCell[][] board = model.getBoard();
-        if (board[row][col].isFixed) return;
-
-        if (value == 0) {
-            if (board[row][col].value != 0) {
-                moveStack.push(new Move(row, col, board[row][col].value));
-                model.setValue(row, col, 0);
-                boardLiveData.setValue(model.getBoard());
-            }
-            return;
+        if (!session.setCellValue(row, col, value)) return;
+
+        publishChange(value == 0 ? BoardChange.ERASE : BoardChange.MOVE);
+        if (session.isWrong(row, col)) {
+            mistakesLiveData.setValue(session.getMistakeCount());
         }
 
-        if (board[row][col].value != value) {
-            moveStack.push(new Move(row, col, board[row][col].value));
-            model.setValue(row, col, value);
-            boardLiveData.setValue(model.getBoard());
+        if (value == 0 || !checkCompleted()) saveGame();
+    }
 
-            if (model.isBoardFull()) {
-                if (timer != null) timer.cancel();
-                gameCompletedLiveData.setValue(true);
+    private boolean checkCompleted() {
+        if (!session.isCompleted()) {
+            if (session.isBoardFull()) {
+                errorMessageLiveData.setValue("The board is full, but some entries are wrong");
             }
+            return false;
         }
+        stopTimer();
+        endGame();
+        gameCompletedLiveData.setValue(true);
+        return true;
+    }
+
+    /**
+     * Toggles a pencil mark in an empty cell. Placing a digit later removes it
+     * from its peers' notes; undo brings those notes back.
+     */
+    public void toggleNote(int row, int col, int digit) {
+        if (!session.toggleNote(row, col, digit)) return;
+
+        publishChange(BoardChange.NOTE);
+        saveGame();
+    }
+
+    public int getNotes(int row, int col) {
+        return session.getNotes(row, col);
+    }
+
+    public void toggleNotesMode() {
+        notesModeLiveData.setValue(!isNotesMode());
+    }
+
+    public boolean isNotesMode() {
+        return Boolean.TRUE.equals(notesModeLiveData.getValue());
     }
 
     public int[] undoLastMove() {
-        if (moveStack.isEmpty()) {
+        int move = session.undoLastMove();
+        if (move == GameSession.NO_MOVE) {
             errorMessageLiveData.setValue("Nothing to undo");
             return new int[]{-1, -1};
         }
 
-        Move lastMove = moveStack.pop();
-        model.setValue(lastMove.row, lastMove.col, lastMove.previousValue);
-        boardLiveData.setValue(model.getBoard());
+        int row = GameSession.moveRow(move), col = GameSession.moveCol(move);
+        publishChange(BoardChange.UNDO);
+        saveGame();
 
-        return new int[]{lastMove.row, lastMove.col};
+        return new int[]{row, col};
     }
 
-    public int[] getValidNumbers(int row, int col) {
-        SudokuCell[][] board = model.getBoard();
-        if (board[row][col].isFixed) return new int[0];
-
-        int[] validNumbers = new int[9];
-        int count = 0;
-        for (int i = 1; i <= 9; i++) {
-            if (SudokuUtils.isMoveValid(board, row, col, i)) {
-                validNumbers[count++] = i;
-            }
+    public int[] redoMove() {
+        int move = session.redoMove();
+        if (move == GameSession.NO_MOVE) {
+            errorMessageLiveData.setValue("Nothing to redo");
+            return new int[]{-1, -1};
         }
 
-        int[] result = new int[count];
-        System.arraycopy(validNumbers, 0, result, 0, count);
-        return result;
+        int row = GameSession.moveRow(move), col = GameSession.moveCol(move);
+        publishChange(BoardChange.REDO);
+        if (!checkCompleted()) saveGame();
+
+        return new int[]{row, col};
     }
 
-    public int[] findNextEmptyCell(int currentRow, int currentCol) {
-        SudokuCell[][] board = model.getBoard();
+    /**
+     * Undoes or redoes moves until exactly {@code position} of them are in
+     * effect; 0 rewinds to the start so the game can be replayed move by move
+     * with {@link #redoMove()}.
+     */
+    public void jumpToMove(int position) {
+        if (position < 0 || position > session.getMoveCount()) return;
+
+        beginBatch(BoardChange.JUMP);
+        while (session.getMovePosition() > position) {
+            session.undoLastMove();
+            publishChange(BoardChange.JUMP);
+        }
+        while (session.getMovePosition() < position) {
+            session.redoMove();
+            publishChange(BoardChange.JUMP);
+        }
+        endBatch();
+        if (!checkCompleted()) saveGame();
+    }
+
+    public int getMovePosition() {
+        return session.getMovePosition();
+    }
+
+    public int getMoveCount() {
+        return session.getMoveCount();
+    }
+
+    public int getValue(int row, int col) {
+        return session.getValue(row, col);
+    }
+
+    public boolean isFixed(int row, int col) {
+        return session.isFixed(row, col);
+    }
+
+    public boolean isConflict(int row, int col) {
+        return session.isConflict(row, col);
+    }
 
-        int nextRow = currentRow, nextCol = currentCol + 1;
-        if (nextCol >= 9) {
-            nextCol = 0;
-            nextRow++;
+    /** Clears every entry of the current puzzle and restarts its timer. */
+    public void resetBoard() {
+        session.reset();
+        publishChange(BoardChange.RESET);
+        mistakesLiveData.setValue(0);
+        gameActive = true;
+        saveGame();
+
+        gameCompletedLiveData.setValue(false);
+        timeUpLiveData.setValue(false);
+        startTimer();
+    }
+
+    /**
+     * Holds back the changes made until {@link #endBatch()}, which publishes
+     * them as one {@link BoardChange} if there were any.
+     */
+    public void beginBatch(BoardChange cause) {
+        if (pendingBatch == null) {
+            pendingBatch = cause;
+            batchChanged = false;
         }
+    }
 
-        for (int row = nextRow; row < 9; row++) {
-            int startCol = (row == nextRow) ? nextCol : 0;
-            for (int col = startCol; col < 9; col++) {
-                if (board[row][col].value == 0 && !board[row][col].isFixed) {
-                    return new int[]{row, col};
-                }
-            }
+    public void endBatch() {
+        BoardChange batch = pendingBatch;
+        pendingBatch = null;
+        if (batch != null && batchChanged) {
+            boardChangeLiveData.setValue(batch);
         }
+    }
 
-        for (int row = 0; row <= currentRow; row++) {
-            int endCol = (row == currentRow) ? currentCol : 9;
-            for (int col = 0; col < endCol; col++) {
-                if (board[row][col].value == 0 && !board[row][col].isFixed) {
-                    return new int[]{row, col};
-                }
-            }
+    private void publishChange(BoardChange cause) {
+        if (pendingBatch != null) {
+            batchChanged = true;
+        } else {
+            boardChangeLiveData.setValue(cause);
+        }
+    }
+
+    /** Digits that can legally go in the cell, as a 9-bit mask (bit 0 is digit 1). */
+    public int getCandidateMask(int row, int col) {
+        return session.getCandidateMask(row, col);
+    }
+
+    public int[] getValidNumbers(int row, int col) {
+        int mask = session.getCandidateMask(row, col);
+        int[] result = new int[Integer.bitCount(mask)];
+        for (int i = 0; mask != 0; i++) {
+            result[i] = Integer.numberOfTrailingZeros(mask) + 1;
+            mask &= mask - 1;
         }
+        return result;
+    }
 
-        return new int[]{-1, -1};
+    /**
+     * Where to go after a placement, as row * 9 + col: the next empty cell in
+     * reading order, or in jump-to-fewest mode the empty cell with the fewest
+     * candidates. {@link GameSession#NO_CELL} when the board is full.
+     */
+    public int findNextCell(int currentRow, int currentCol) {
+        return isJumpToFewest()
+                ? session.mostConstrainedCell(currentRow, currentCol)
+                : session.nextEmptyCell(currentRow, currentCol);
+    }
+
+    public void toggleJumpToFewest() {
+        jumpToFewestLiveData.setValue(!isJumpToFewest());
+    }
+
+    public boolean isJumpToFewest() {
+        return Boolean.TRUE.equals(jumpToFewestLiveData.getValue());
     }
 
     // ADDED: Method to set custom error messages
@@ -154,32 +435,36 @@ public class GameViewModel extends ViewModel {
         errorMessageLiveData.setValue(null);
     }
 
+    /**
+     * Sets who is told the whole seconds left, only when the shown value
+     * changes, and tells it the current value right away. Pass null to stop.
+     */
+    public void setTimerListener(TimerListener listener) {
+        timerListener = listener;
+        if (listener != null && shownSeconds >= 0) listener.onTimeLeft(shownSeconds);
+    }
+
     public void cleanup() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
-        }
+        stopTimer();
     }
 
     @Override
     protected void onCleared() {
         super.onCleared();
         cleanup();
+        hintExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
     }
 
     // LiveData getters
     public LiveData<SudokuCell[][]> getBoard() { return boardLiveData; }
+    public LiveData<BoardChange> getBoardChanges() { return boardChangeLiveData; }
     public LiveData<Boolean> getGameCompleted() { return gameCompletedLiveData; }
     public LiveData<String> getErrorMessage() { return errorMessageLiveData; }
-    public LiveData<Long> getTimeLeft() { return timeLeftLiveData; }
     public LiveData<Boolean> getTimeUp() { return timeUpLiveData; }
+    public LiveData<Hint> getHint() { return hintLiveData; }
+    public LiveData<Integer> getMistakes() { return mistakesLiveData; }
+    public LiveData<Boolean> getNotesMode() { return notesModeLiveData; }
+    public LiveData<Boolean> getJumpToFewest() { return jumpToFewestLiveData; }
 
-    public static class Move {
-        public final int row, col, previousValue;
-        public Move(int row, int col, int previousValue) {
-            this.row = row;
-            this.col = col;
-            this.previousValue = previousValue;
-        }
-    }
 }
\ No newline at end of file
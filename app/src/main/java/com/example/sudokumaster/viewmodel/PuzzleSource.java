@@ -0,0 +1,161 @@
+package com.example.sudokumaster.viewmodel;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
+
+import com.example.sudokumaster.model.Puzzle;
+import com.example.sudokumaster.model.PuzzleBank;
+import com.example.sudokumaster.model.PuzzleCanonicalizer;
+import com.example.sudokumaster.model.PuzzleFingerprint;
+import com.example.sudokumaster.model.PuzzlePool;
+import com.example.sudokumaster.model.SeenIndex;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Hands out puzzles from the bundled {@link PuzzleBank} and only falls back to
+ * the generator-backed {@link PuzzlePool} once every banked puzzle of a
+ * difficulty has been played, or if the bank cannot be opened.
+ *
+ * Each install walks the bank from its own random starting point, remembered
+ * in shared preferences together with how many puzzles it has served, so
+ * puzzles do not repeat across app restarts. The count only moves when a
+ * puzzle is handed to a game; how far the background check has read ahead
+ * is kept in memory, so a restart checks those puzzles again rather than
+ * skipping them. Every puzzle served also goes into a {@link SeenIndex},
+ * and banked or generated puzzles that merely repeat an earlier one up to
+ * symmetry are skipped.
+ *
+ * Loading the index and fingerprinting puzzles run on the pool's background
+ * thread: the next banked puzzle of each difficulty is checked against the
+ * index ahead of time, and served puzzles are recorded after they are
+ * handed out. If a game starts before that check has finished, the next
+ * banked puzzle is served unchecked.
+ */
+public class PuzzleSource {
+    private static final String ASSET = "puzzles.bank";
+    private static final String PREFS = "puzzle_bank";
+    private static final String SEEN_FILE = "seen.index";
+
+    private static PuzzleSource instance;
+
+    private final PuzzleBank bank;
+    private final SharedPreferences prefs;
+    private final SeenIndex seen;
+    // Only used on the pool's thread
+    private final PuzzleCanonicalizer canonicalizer = new PuzzleCanonicalizer();
+    private final Random random = new Random();
+    // Banked puzzles already checked against the index, per difficulty
+    private final Puzzle[] ready = new Puzzle[3];
+    // Bank position of the next puzzle to take, per difficulty; ahead of the
+    // stored served count by whatever the check has read
+    private final int[] cursor = new int[3];
+
+    public static synchronized PuzzleSource getInstance(Context context) {
+        if (instance == null) {
+            instance = new PuzzleSource(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private PuzzleSource(Context context) {
+        prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        bank = openBank(context);
+        for (int difficulty = 1; difficulty <= 3; difficulty++) {
+            cursor[index(difficulty)] = prefs.getInt("served_" + difficulty, 0);
+        }
+        seen = new SeenIndex(new File(context.getFilesDir(), SEEN_FILE));
+        PuzzlePool pool = PuzzlePool.getInstance();
+        pool.setSeenIndex(seen);
+        // Queued first, so it runs before any check or record below
+        pool.execute(seen::load);
+        for (int difficulty = 1; difficulty <= 3; difficulty++) {
+            scheduleCheck(difficulty);
+        }
+    }
+
+    private static PuzzleBank openBank(Context context) {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(ASSET);
+             FileInputStream in = descriptor.createInputStream()) {
+            return PuzzleBank.map(in.getChannel(), descriptor.getStartOffset(), descriptor.getLength());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Starts generating puzzles in the background for difficulties the bank can no longer serve. */
+    public void prefill() {
+        for (int difficulty = 1; difficulty <= 3; difficulty++) {
+            boolean exhausted;
+            synchronized (this) {
+                exhausted = ready[index(difficulty)] == null && remaining(difficulty) == 0;
+            }
+            if (exhausted) PuzzlePool.getInstance().prefill(difficulty);
+        }
+    }
+
+    public Puzzle next(int difficulty) {
+        Puzzle puzzle;
+        synchronized (this) {
+            int index = index(difficulty);
+            puzzle = ready[index];
+            ready[index] = null;
+            if (puzzle == null && remaining(difficulty) > 0) puzzle = takeFromBank(difficulty);
+            // Everything before the cursor was served now or skipped as already seen
+            if (puzzle != null) prefs.edit().putInt("served_" + difficulty, cursor[index]).apply();
+        }
+        if (puzzle == null) puzzle = PuzzlePool.getInstance().take(difficulty);
+
+        Puzzle served = puzzle;
+        PuzzlePool.getInstance().execute(() -> seen.add(canonicalizer.fingerprint(served.getGivens())));
+        scheduleCheck(difficulty);
+        return puzzle;
+    }
+
+    private void scheduleCheck(int difficulty) {
+        PuzzlePool.getInstance().execute(() -> checkNext(difficulty));
+    }
+
+    /** Takes banked puzzles until one is not in the index, and keeps it ready. Runs on the pool's thread. */
+    private void checkNext(int difficulty) {
+        int index = index(difficulty);
+        while (true) {
+            Puzzle puzzle;
+            synchronized (this) {
+                if (ready[index] != null || remaining(difficulty) == 0) return;
+                puzzle = takeFromBank(difficulty);
+            }
+            if (!seen.contains(canonicalizer.fingerprint(puzzle.getGivens()))) {
+                synchronized (this) {
+                    ready[index] = puzzle;
+                }
+                return;
+            }
+        }
+    }
+
+    private static int index(int difficulty) {
+        return difficulty == 1 ? 0 : difficulty == 3 ? 2 : 1;
+    }
+
+    /** Takes the puzzle at the cursor without storing it as served. Call with the lock held. */
+    private Puzzle takeFromBank(int difficulty) {
+        int size = bank.size(difficulty);
+        String startKey = "start_" + difficulty;
+        if (!prefs.contains(startKey)) {
+            prefs.edit().putInt(startKey, random.nextInt(size)).apply();
+        }
+        int position = cursor[index(difficulty)]++;
+        return bank.get(difficulty, (prefs.getInt(startKey, 0) + position) % size);
+    }
+
+    /** Banked puzzles not yet taken. Call with the lock held. */
+    private int remaining(int difficulty) {
+        if (bank == null) return 0;
+        return Math.max(0, bank.size(difficulty) - cursor[index(difficulty)]);
+    }
+}
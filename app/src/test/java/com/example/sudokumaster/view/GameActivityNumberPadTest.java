@@ -0,0 +1,118 @@
+package com.example.sudokumaster.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Intent;
+import android.os.Looper;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.GridLayout;
+
+import androidx.lifecycle.ViewModelProvider;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.sudokumaster.R;
+import com.example.sudokumaster.viewmodel.GameViewModel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class GameActivityNumberPadTest {
+    private GameActivity activity;
+    private SudokuBoardView board;
+    private GridLayout pad;
+    private GameViewModel viewModel;
+
+    @Before
+    public void setUp() {
+        Intent intent = new Intent(ApplicationProvider.getApplicationContext(), GameActivity.class)
+                .putExtra("difficulty", 1);
+        activity = Robolectric.buildActivity(GameActivity.class, intent).setup().get();
+        shadowOf(Looper.getMainLooper()).idle();
+        board = activity.findViewById(R.id.sudokuBoard);
+        pad = activity.findViewById(R.id.numberPad);
+        viewModel = new ViewModelProvider(activity).get(GameViewModel.class);
+        assertTrue(board.getWidth() > 0);
+    }
+
+    @Test
+    public void selectingCellsCreatesNoViews() {
+        int[] empty = emptyCells();
+        assertTrue(empty.length > 0);
+
+        // Warm up: select every empty cell once
+        for (int cell : empty) tap(cell);
+        assertEquals(9, pad.getChildCount());
+        View[] buttons = new View[9];
+        for (int i = 0; i < 9; i++) buttons[i] = pad.getChildAt(i);
+        View root = activity.getWindow().getDecorView();
+        int views = countViews(root, View.class);
+        int numberButtons = countViews(root, Button.class);
+
+        for (int round = 0; round < 5; round++) {
+            for (int cell : empty) {
+                tap(cell);
+                assertEquals(View.VISIBLE, pad.getVisibility());
+            }
+        }
+
+        assertEquals(9, pad.getChildCount());
+        for (int i = 0; i < 9; i++) assertSame(buttons[i], pad.getChildAt(i));
+        assertEquals(views, countViews(root, View.class));
+        assertEquals(numberButtons, countViews(root, Button.class));
+    }
+
+    @Test
+    public void selectingCellEnablesItsCandidates() {
+        for (int cell : emptyCells()) {
+            tap(cell);
+            int candidates = viewModel.getCandidateMask(cell / 9, cell % 9);
+            for (int i = 0; i < 9; i++) {
+                assertEquals((candidates & 1 << i) != 0, pad.getChildAt(i).isEnabled());
+            }
+        }
+    }
+
+    private int[] emptyCells() {
+        int[] cells = new int[81];
+        int count = 0;
+        for (int cell = 0; cell < 81; cell++) {
+            if (viewModel.getValue(cell / 9, cell % 9) == 0) cells[count++] = cell;
+        }
+        int[] result = new int[count];
+        System.arraycopy(cells, 0, result, 0, count);
+        return result;
+    }
+
+    private void tap(int cell) {
+        float cellSize = board.getWidth() / 9f;
+        float x = (cell % 9 + 0.5f) * cellSize, y = (cell / 9 + 0.5f) * cellSize;
+        MotionEvent down = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(0, 10, MotionEvent.ACTION_UP, x, y, 0);
+        board.dispatchTouchEvent(down);
+        board.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static int countViews(View view, Class<? extends View> type) {
+        int count = type.isInstance(view) ? 1 : 0;
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                count += countViews(group.getChildAt(i), type);
+            }
+        }
+        return count;
+    }
+}
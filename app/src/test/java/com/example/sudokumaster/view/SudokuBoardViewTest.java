@@ -0,0 +1,188 @@
+package com.example.sudokumaster.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.core.content.ContextCompat;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.sudokumaster.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class SudokuBoardViewTest {
+    // 100 pixels per cell
+    private static final int SIZE = 900;
+
+    private final FakeBoard board = new FakeBoard();
+    private final RecordingListener listener = new RecordingListener();
+    private Context context;
+    private SudokuBoardView view;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        view = new SudokuBoardView(context);
+        view.setBoardSource(board);
+        view.setListener(listener);
+        int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        view.measure(spec, spec);
+        view.layout(0, 0, SIZE, SIZE);
+    }
+
+    @Test
+    public void drawsCellStatesFromTheSource() {
+        board.values[0][0] = 5;
+        board.fixed[0][0] = true;
+        board.values[8][8] = 3;
+        board.conflicts[8][8] = true;
+        view.setSelectedCell(4, 4);
+        view.setHighlightedCells(new int[]{2 * 9 + 3});
+
+        Bitmap bitmap = render();
+        assertEquals(color(R.color.cell_fixed), backgroundOf(bitmap, 0, 0));
+        assertEquals(color(R.color.cell_selected), backgroundOf(bitmap, 4, 4));
+        assertEquals(color(R.color.cell_conflict), backgroundOf(bitmap, 8, 8));
+        assertEquals(color(R.color.cell_hint), backgroundOf(bitmap, 2, 3));
+        assertEquals(color(R.color.cell_editable), backgroundOf(bitmap, 1, 1));
+    }
+
+    @Test
+    public void redrawsAfterTheSourceChanges() {
+        view.setSelectedCell(4, 4);
+        assertEquals(color(R.color.cell_editable), backgroundOf(render(), 6, 2));
+
+        board.conflicts[6][2] = true;
+        assertEquals(color(R.color.cell_conflict), backgroundOf(render(), 6, 2));
+    }
+
+    @Test
+    public void tapSelectsEditableCell() {
+        tap(2, 3);
+
+        assertEquals(2, listener.selectedRow);
+        assertEquals(3, listener.selectedCol);
+        assertEquals(2, view.getSelectedRow());
+        assertEquals(3, view.getSelectedCol());
+    }
+
+    @Test
+    public void tapOnFixedCellKeepsSelection() {
+        board.values[0][0] = 5;
+        board.fixed[0][0] = true;
+        tap(2, 3);
+        listener.selectedRow = listener.selectedCol = -1;
+
+        tap(0, 0);
+
+        assertEquals(-1, listener.selectedRow);
+        assertEquals(2, view.getSelectedRow());
+        assertEquals(3, view.getSelectedCol());
+    }
+
+    @Test
+    public void digitKeysGoToSelectedCell() {
+        tap(7, 1);
+
+        assertTrue(pressKey(KeyEvent.KEYCODE_7));
+        assertEquals(7, listener.digitRow);
+        assertEquals(1, listener.digitCol);
+        assertEquals(7, listener.digit);
+
+        assertTrue(pressKey(KeyEvent.KEYCODE_DEL));
+        assertEquals(0, listener.digit);
+    }
+
+    @Test
+    public void keysWithoutSelectionAreNotConsumed() {
+        assertFalse(pressKey(KeyEvent.KEYCODE_4));
+        assertEquals(-1, listener.digit);
+    }
+
+    private Bitmap render() {
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    // Samples near the top-left corner of the cell, clear of grid lines and digits
+    private static int backgroundOf(Bitmap bitmap, int row, int col) {
+        return bitmap.getPixel(col * 100 + 20, row * 100 + 20);
+    }
+
+    private int color(int id) {
+        return ContextCompat.getColor(context, id);
+    }
+
+    private void tap(int row, int col) {
+        float x = col * 100 + 50, y = row * 100 + 50;
+        MotionEvent down = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(0, 10, MotionEvent.ACTION_UP, x, y, 0);
+        view.dispatchTouchEvent(down);
+        view.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+    private boolean pressKey(int keyCode) {
+        return view.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, keyCode));
+    }
+
+    private static class FakeBoard implements SudokuBoardView.BoardSource {
+        final int[][] values = new int[9][9];
+        final boolean[][] fixed = new boolean[9][9];
+        final boolean[][] conflicts = new boolean[9][9];
+
+        @Override
+        public int getValue(int row, int col) {
+            return values[row][col];
+        }
+
+        @Override
+        public boolean isFixed(int row, int col) {
+            return fixed[row][col];
+        }
+
+        @Override
+        public boolean isConflict(int row, int col) {
+            return conflicts[row][col];
+        }
+
+        @Override
+        public int getNotes(int row, int col) {
+            return 0;
+        }
+    }
+
+    private static class RecordingListener implements SudokuBoardView.Listener {
+        int selectedRow = -1, selectedCol = -1;
+        int digitRow = -1, digitCol = -1, digit = -1;
+
+        @Override
+        public void onCellSelected(int row, int col) {
+            selectedRow = row;
+            selectedCol = col;
+        }
+
+        @Override
+        public void onDigitEntered(int row, int col, int digit) {
+            digitRow = row;
+            digitCol = col;
+            this.digit = digit;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.BatchGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch generation of medium puzzles at different pool sizes, to see how
+ * throughput scales with the number of threads on the machine at hand.
+ */
+@State(Scope.Benchmark)
+public class BatchGeneratorBenchmark {
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    private ForkJoinPool pool;
+    private BatchGenerator generator;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threads);
+        generator = new BatchGenerator(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int generateBatch() {
+        AtomicInteger delivered = new AtomicInteger();
+        generator.generate(BATCH_SIZE, 2, seed++, (index, puzzle) -> delivered.incrementAndGet());
+        return delivered.get();
+    }
+}
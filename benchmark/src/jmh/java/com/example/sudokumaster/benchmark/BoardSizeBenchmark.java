@@ -0,0 +1,50 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.BoardGeometry;
+import com.example.sudokumaster.model.DlxSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Dancing Links solving and uniqueness checks per board size, on
+ * unique-solution puzzles with about half of the cells empty.
+ */
+@State(Scope.Thread)
+public class BoardSizeBenchmark {
+    @Param({"4", "6", "9", "12", "16", "25"})
+    int size;
+
+    private DlxSolver solver;
+    private int[][][] corpus;
+    private int[][] work;
+    private int next;
+
+    @Setup
+    public void setup() {
+        BoardGeometry geometry = BoardGeometry.forSize(size);
+        solver = new DlxSolver(geometry);
+        corpus = Puzzles.dug(geometry, 16, 0.5, size);
+        work = new int[size][size];
+    }
+
+    private int[][] nextPuzzle() {
+        int[][] puzzle = corpus[next];
+        next = next + 1 == corpus.length ? 0 : next + 1;
+        return puzzle;
+    }
+
+    @Benchmark
+    public boolean solve() {
+        Puzzles.copy(nextPuzzle(), work);
+        return solver.solve(work);
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        return solver.countSolutions(nextPuzzle(), 2);
+    }
+}
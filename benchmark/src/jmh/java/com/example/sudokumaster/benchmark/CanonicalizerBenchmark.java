@@ -0,0 +1,38 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.PuzzleCanonicalizer;
+import com.example.sudokumaster.model.PuzzleFingerprint;
+import com.example.sudokumaster.model.SudokuGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Canonical-form fingerprints of generated puzzles, to compare against the cost of generating them. */
+@State(Scope.Thread)
+public class CanonicalizerBenchmark {
+    @Param({"1", "2", "3"})
+    int difficulty;
+
+    private final PuzzleCanonicalizer canonicalizer = new PuzzleCanonicalizer();
+    private int[][][] corpus;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SudokuGenerator generator = new SudokuGenerator(SudokuGenerator.NO_TIME_BUDGET);
+        corpus = new int[64][][];
+        for (int i = 0; i < corpus.length; i++) {
+            corpus[i] = generator.generate(difficulty, i).getGivens();
+        }
+    }
+
+    @Benchmark
+    public PuzzleFingerprint fingerprint() {
+        int[][] puzzle = corpus[next];
+        next = next + 1 == corpus.length ? 0 : next + 1;
+        return canonicalizer.fingerprint(puzzle);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.GameSession;
+import com.example.sudokumaster.model.Puzzle;
+import com.example.sudokumaster.model.SudokuGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A whole game driven headlessly: start a hard puzzle, then for every empty
+ * cell query candidates, place the solution digit and jump to the next empty
+ * cell, undoing every fifth move once, the way the UI does.
+ */
+@State(Scope.Thread)
+public class GameSessionBenchmark {
+    private long now;
+    private final GameSession session = new GameSession(() -> now);
+    private Puzzle puzzle;
+
+    @Setup
+    public void setup() {
+        puzzle = new SudokuGenerator().generate(3);
+    }
+
+    @Benchmark
+    public boolean playGame() {
+        session.start(puzzle, 3);
+        int cell = session.nextEmptyCell(0, -1);
+        int moves = 0;
+        while (cell != GameSession.NO_CELL) {
+            int row = cell / 9, col = cell % 9;
+            int digit = puzzle.getSolution(row, col);
+            if ((session.getCandidateMask(row, col) & (1 << (digit - 1))) == 0) break;
+            session.setCellValue(row, col, digit);
+            if (++moves % 5 == 0) {
+                session.undoLastMove();
+                session.setCellValue(row, col, digit);
+            }
+            now += 1_000;
+            cell = session.nextEmptyCell(row, col);
+        }
+        return session.isCompleted() && !session.isTimeUp();
+    }
+}
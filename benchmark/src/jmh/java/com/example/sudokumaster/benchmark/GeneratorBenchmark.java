@@ -0,0 +1,33 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.Puzzle;
+import com.example.sudokumaster.model.SudokuGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Full puzzle generation: solution grid plus unique-solution digging. */
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+    @Param({"1", "2", "3"})
+    int difficulty;
+
+    /** Share of solution grids transformed from earlier ones instead of solved. */
+    @Param({"0", "0.75", "1"})
+    double transformedShare;
+
+    private SudokuGenerator generator;
+
+    @Setup
+    public void setup() {
+        generator = new SudokuGenerator(SudokuGenerator.DEFAULT_TIME_BUDGET_MS, transformedShare);
+    }
+
+    @Benchmark
+    public Puzzle generate() {
+        return generator.generate(difficulty);
+    }
+}
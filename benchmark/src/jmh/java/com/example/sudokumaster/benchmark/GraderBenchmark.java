@@ -0,0 +1,40 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.LogicalSolver;
+import com.example.sudokumaster.model.SudokuGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Grading cost per candidate puzzle. The generator grades every candidate
+ * it digs, so this has to stay in the thousands of grades per second.
+ */
+@State(Scope.Thread)
+public class GraderBenchmark {
+    @Param({"1", "2", "3"})
+    int difficulty;
+
+    private final LogicalSolver grader = new LogicalSolver();
+    private int[][][] puzzles;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SudokuGenerator generator = new SudokuGenerator();
+        puzzles = new int[32][][];
+        for (int i = 0; i < puzzles.length; i++) {
+            puzzles[i] = generator.generate(difficulty).getGivens();
+        }
+    }
+
+    @Benchmark
+    public int grade() {
+        int[][] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        return grader.grade(puzzle);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.BoardGeometry;
+import com.example.sudokumaster.model.SudokuGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** Fixed puzzle corpora shared by the benchmarks. */
+final class Puzzles {
+    private Puzzles() {}
+
+    /** Unique-solution 17-clue puzzles, the hardest case for givens-driven propagation. */
+    static int[][][] seventeenClue() {
+        return load("/puzzles17.txt");
+    }
+
+    static int[][][] load(String resource) {
+        List<int[][]> puzzles = new ArrayList<>();
+        try (InputStream in = Puzzles.class.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing corpus " + resource);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() >= 81) puzzles.add(parse(line));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return puzzles.toArray(new int[0][][]);
+    }
+
+    static int[][] parse(String line) {
+        int[][] board = new int[9][9];
+        for (int i = 0; i < 81; i++) {
+            char c = line.charAt(i);
+            board[i / 9][i % 9] = c >= '1' && c <= '9' ? c - '0' : 0;
+        }
+        return board;
+    }
+
+    /** Unique-solution puzzles of any size with {@code emptyShare} of the cells dug out. */
+    static int[][][] dug(BoardGeometry geometry, int count, double emptyShare, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SudokuGenerator generator = new SudokuGenerator();
+        int[][][] puzzles = new int[count][][];
+        for (int k = 0; k < count; k++) puzzles[k] = generator.generate(geometry, emptyShare, random);
+        return puzzles;
+    }
+
+    static void copy(int[][] from, int[][] to) {
+        for (int row = 0; row < from.length; row++) {
+            System.arraycopy(from[row], 0, to[row], 0, from[row].length);
+        }
+    }
+}
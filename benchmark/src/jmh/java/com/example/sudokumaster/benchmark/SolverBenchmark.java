@@ -0,0 +1,56 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.BoardGeometry;
+import com.example.sudokumaster.model.DlxSolver;
+import com.example.sudokumaster.model.SudokuSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Solving and uniqueness checks over the 17-clue corpus, one puzzle per
+ * invocation, for the 9x9 solver and the general Dancing Links solver.
+ */
+@State(Scope.Thread)
+public class SolverBenchmark {
+    private final SudokuSolver solver = new SudokuSolver();
+    private final DlxSolver dlx = new DlxSolver(BoardGeometry.STANDARD);
+    private final int[][] work = new int[9][9];
+    private int[][][] corpus;
+    private int next;
+
+    @Setup
+    public void setup() {
+        corpus = Puzzles.seventeenClue();
+    }
+
+    private int[][] nextPuzzle() {
+        int[][] puzzle = corpus[next];
+        next = next + 1 == corpus.length ? 0 : next + 1;
+        return puzzle;
+    }
+
+    @Benchmark
+    public boolean solve() {
+        Puzzles.copy(nextPuzzle(), work);
+        return solver.solve(work);
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        return solver.countSolutions(nextPuzzle(), 2);
+    }
+
+    @Benchmark
+    public boolean dlxSolve() {
+        Puzzles.copy(nextPuzzle(), work);
+        return dlx.solve(work);
+    }
+
+    @Benchmark
+    public int dlxCountSolutions() {
+        return dlx.countSolutions(nextPuzzle(), 2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.sudokumaster.benchmark;
+
+import com.example.sudokumaster.model.SudokuGenerator;
+import com.example.sudokumaster.model.SudokuModel;
+import com.example.sudokumaster.model.SudokuUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-move checks on a medium board. Each invocation covers every digit of
+ * one cell, which is what a cell selection costs the number pad.
+ */
+@State(Scope.Thread)
+public class ValidationBenchmark {
+    private final SudokuModel model = new SudokuModel();
+    private int cell;
+
+    @Setup
+    public void setup() {
+        model.generateBoard(new SudokuGenerator().generate(2));
+    }
+
+    private int nextCell() {
+        cell = cell == 80 ? 0 : cell + 1;
+        return cell;
+    }
+
+    @Benchmark
+    public int isMoveValidScan() {
+        int c = nextCell(), row = c / 9, col = c % 9, valid = 0;
+        for (int digit = 1; digit <= 9; digit++) {
+            if (SudokuUtils.isMoveValid(model.getBoard(), row, col, digit)) valid++;
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int isMoveValid() {
+        int c = nextCell(), row = c / 9, col = c % 9, valid = 0;
+        for (int digit = 1; digit <= 9; digit++) {
+            if (model.isMoveValid(row, col, digit)) valid++;
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int candidateMask() {
+        int c = nextCell();
+        return model.getCandidateMask(c / 9, c % 9);
+    }
+
+    @Benchmark
+    public boolean setValueAndUndo() {
+        int c = nextCell(), row = c / 9, col = c % 9;
+        int previous = model.getValue(row, col);
+        model.setValue(row, col, previous == 9 ? 1 : previous + 1);
+        boolean full = model.isBoardFull();
+        model.setValue(row, col, previous);
+        return full;
+    }
+}
@@ -21,3 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "sudokumaster"
 include(":app")
+include(":sudoku-core")
+include(":benchmark")
+include(":sudoku-tools")
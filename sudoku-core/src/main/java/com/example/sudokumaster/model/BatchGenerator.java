@@ -0,0 +1,126 @@
+package com.example.sudokumaster.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates many puzzles of one difficulty across a fork-join pool, for
+ * building puzzle packs offline.
+ *
+ * Indices are generated in windows of {@link #WINDOW} on the pool; within a
+ * window the range is split recursively and every index gets its own
+ * {@link SplittableRandom} split from its subtask's, so the puzzle at each
+ * index depends only on the seed, not on scheduling or thread count. Once
+ * a window is done its repeated grids are resolved in index order (the
+ * earliest index keeps the grid, later ones draw again from their own
+ * stream) and it is handed to the consumer before the next window starts.
+ * Memory therefore stays at one window of puzzles plus a fingerprint per
+ * puzzle delivered.
+ */
+public class BatchGenerator {
+
+    /** Receives finished puzzles, in index order on the thread that called {@link #generate}. */
+    public interface Consumer {
+        void accept(int index, Puzzle puzzle);
+    }
+
+    private static final int LEAF_SIZE = 8;
+    static final int WINDOW = 256;
+
+    private final ForkJoinPool pool;
+    // Generators hold solver buffers, so each worker thread keeps its own
+    private final ThreadLocal<SudokuGenerator> generators = ThreadLocal.withInitial(SudokuGenerator::new);
+    private final AtomicInteger duplicates = new AtomicInteger();
+
+    public BatchGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** Generates {@code count} distinct puzzles and blocks until all were delivered. */
+    public void generate(int count, int difficulty, long seed, Consumer consumer) {
+        duplicates.set(0);
+        SplittableRandom random = new SplittableRandom(seed);
+        Puzzle[] puzzles = new Puzzle[Math.min(count, WINDOW)];
+        SplittableRandom[] streams = new SplittableRandom[puzzles.length];
+        Set<Long> seen = new HashSet<>(count * 2);
+        for (int start = 0; start < count; start += WINDOW) {
+            int end = Math.min(count, start + WINDOW);
+            pool.invoke(new Task(start, start, end, difficulty, random.split(), puzzles, streams));
+
+            for (int index = start; index < end; index++) {
+                Puzzle puzzle = puzzles[index - start];
+                while (!seen.add(fingerprint(puzzle.getGivens()))) {
+                    duplicates.incrementAndGet();
+                    puzzle = generators.get().generate(difficulty, streams[index - start]);
+                }
+                puzzles[index - start] = null;
+                streams[index - start] = null;
+                consumer.accept(index, puzzle);
+            }
+        }
+    }
+
+    /** Grids dropped as duplicates by the last {@link #generate} call. */
+    public int getLastDuplicateCount() {
+        return duplicates.get();
+    }
+
+    static long fingerprint(int[][] puzzle) {
+        long h1 = 0x9E3779B97F4A7C15L, h2 = 0xC2B2AE3D27D4EB4FL;
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                h1 = (h1 ^ puzzle[row][col]) * 0x100000001B3L;
+                h2 = Long.rotateLeft(h2 ^ puzzle[row][col], 31) * 0x9E3779B97F4A7C15L;
+            }
+        }
+        long h = h1 ^ h2;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return h ^ (h >>> 33);
+    }
+
+    private class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // First index of the window, which sits at slot 0 of the arrays
+        private final int base;
+        private final int from, to, difficulty;
+        private final SplittableRandom random;
+        private final Puzzle[] puzzles;
+        private final SplittableRandom[] streams;
+
+        Task(int base, int from, int to, int difficulty, SplittableRandom random, Puzzle[] puzzles,
+             SplittableRandom[] streams) {
+            this.base = base;
+            this.from = from;
+            this.to = to;
+            this.difficulty = difficulty;
+            this.random = random;
+            this.puzzles = puzzles;
+            this.streams = streams;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                SudokuGenerator generator = generators.get();
+                // Each index writes only its own slots, and keeps its stream for redraws
+                for (int slot = from - base; slot < to - base; slot++) {
+                    streams[slot] = random.split();
+                    puzzles[slot] = generator.generate(difficulty, streams[slot]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(base, from, mid, difficulty, random.split(), puzzles, streams),
+                    new Task(base, mid, to, difficulty, random.split(), puzzles, streams));
+        }
+    }
+}
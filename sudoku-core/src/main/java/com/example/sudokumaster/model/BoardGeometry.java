@@ -0,0 +1,106 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Shape of a sudoku board: boxes of {@code boxRows} x {@code boxCols} cells
+ * tiling a square of side {@code boxRows * boxCols}, which is also the number
+ * of digits. Covers the classic 9x9 as well as 4x4, 6x6, 12x12, 16x16 and
+ * 25x25 variants; both box sides must be at least 2, so prime sizes, whose
+ * boxes would be single rows, are not supported. Cells are numbered in
+ * reading order.
+ */
+public final class BoardGeometry {
+    public static final int MAX_SIZE = 25;
+    public static final BoardGeometry STANDARD = new BoardGeometry(3, 3);
+
+    private final int boxRows;
+    private final int boxCols;
+    private final int size;
+
+    private BoardGeometry(int boxRows, int boxCols) {
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+        this.size = boxRows * boxCols;
+    }
+
+    public static BoardGeometry of(int boxRows, int boxCols) {
+        if (boxRows < 2 || boxCols < 2 || boxRows * boxCols > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported box " + boxRows + "x" + boxCols);
+        }
+        return boxRows == 3 && boxCols == 3 ? STANDARD : new BoardGeometry(boxRows, boxCols);
+    }
+
+    /**
+     * The geometry for a board side, with boxes as close to square as
+     * possible and wider than tall, e.g. 2x3 boxes for 6x6 and 3x4 for 12x12.
+     * Throws for sizes that only split into 1 x n boxes.
+     */
+    public static BoardGeometry forSize(int size) {
+        if (size < 1 || size > MAX_SIZE) throw new IllegalArgumentException("Unsupported size " + size);
+        int boxRows = (int) Math.sqrt(size);
+        while (size % boxRows != 0) boxRows--;
+        return of(boxRows, size / boxRows);
+    }
+
+    /** Side of the board and number of digits. */
+    public int getSize() {
+        return size;
+    }
+
+    public int getBoxRows() {
+        return boxRows;
+    }
+
+    public int getBoxCols() {
+        return boxCols;
+    }
+
+    public int getCellCount() {
+        return size * size;
+    }
+
+    /** Index of the box holding the cell, boxes numbered in reading order. */
+    public int boxOf(int row, int col) {
+        return (row / boxRows) * boxRows + col / boxCols;
+    }
+
+    /** Row of the top-left cell of a box. */
+    public int boxRow(int box) {
+        return (box / boxRows) * boxRows;
+    }
+
+    /** Column of the top-left cell of a box. */
+    public int boxCol(int box) {
+        return (box % boxRows) * boxCols;
+    }
+
+    /**
+     * Fills {@code out} with a valid solved board by shifting each row of a
+     * base pattern, so any geometry has a known solution to dig from.
+     */
+    public void fillPattern(int[][] out) {
+        for (int row = 0; row < size; row++) {
+            int shift = (row % boxRows) * boxCols + row / boxRows;
+            for (int col = 0; col < size; col++) {
+                out[row][col] = (shift + col) % size + 1;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardGeometry)) return false;
+        BoardGeometry other = (BoardGeometry) o;
+        return boxRows == other.boxRows && boxCols == other.boxCols;
+    }
+
+    @Override
+    public int hashCode() {
+        return boxRows * 31 + boxCols;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + " (" + boxRows + "x" + boxCols + " boxes)";
+    }
+}
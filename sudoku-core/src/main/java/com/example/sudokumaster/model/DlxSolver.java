@@ -0,0 +1,231 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Exact-cover solver (Knuth's Algorithm X with Dancing Links) for boards of
+ * any {@link BoardGeometry}, meant for the sizes where {@link SudokuSolver}'s
+ * 9-bit masks do not apply and plain backtracking blows up.
+ *
+ * Each of the N^3 (cell, digit) options covers four constraints: the cell is
+ * filled, and the digit appears in the row, the column and the box. The
+ * links live in flat int arrays built once per instance; givens are covered
+ * before the search and uncovered afterwards, so repeated calls do not
+ * allocate. Instances are not thread-safe.
+ */
+public class DlxSolver {
+    private final BoardGeometry geometry;
+    private final int size;
+    private final int columns;
+    private final int root;
+
+    // Nodes 0..columns-1 are column headers, then the root, then four nodes per option
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] count;
+    // First node of every option, option = (cell * size + digit - 1)
+    private final int[] optionNode;
+
+    // Chosen option nodes; the givens come first and stay for the whole call
+    private final int[] stack;
+    private int depth;
+    private int solutionLimit;
+    private int solutionCount;
+    private final int[] solution;
+
+    public DlxSolver(BoardGeometry geometry) {
+        this.geometry = geometry;
+        size = geometry.getSize();
+        int cells = geometry.getCellCount();
+        int options = cells * size;
+        columns = cells * 4;
+        root = columns;
+
+        int nodes = columns + 1 + options * 4;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        count = new int[columns];
+        optionNode = new int[options];
+        stack = new int[cells];
+        solution = new int[cells];
+
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? root : c - 1;
+            right[c] = c == root ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+
+        int node = columns + 1;
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / size, col = cell % size, box = geometry.boxOf(row, col);
+            for (int d = 0; d < size; d++) {
+                optionNode[cell * size + d] = node;
+                int first = node;
+                node = link(node, first, cell);
+                node = link(node, first, cells + row * size + d);
+                node = link(node, first, cells * 2 + col * size + d);
+                node = link(node, first, cells * 3 + box * size + d);
+            }
+        }
+    }
+
+    /** Appends a node for the column to the option starting at {@code first}; returns the next free node. */
+    private int link(int node, int first, int col) {
+        column[node] = col;
+        up[node] = up[col];
+        down[node] = col;
+        down[up[col]] = node;
+        up[col] = node;
+        count[col]++;
+        left[node] = node == first ? node : node - 1;
+        right[node] = first;
+        right[left[node]] = node;
+        left[first] = node;
+        return node + 1;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Solves the board in place. Returns false and leaves the board untouched
+     * when the givens conflict or the puzzle has no solution.
+     */
+    public boolean solve(int[][] board) {
+        if (run(board, 1) == 0) return false;
+        for (int cell = 0; cell < solution.length; cell++) {
+            board[cell / size][cell % size] = solution[cell];
+        }
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the board, stopping as soon as {@code limit} of
+     * them have been found. The board is not modified.
+     */
+    public int countSolutions(int[][] board, int limit) {
+        return limit <= 0 ? 0 : run(board, limit);
+    }
+
+    public boolean hasUniqueSolution(int[][] board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+    private int run(int[][] board, int limit) {
+        solutionLimit = limit;
+        solutionCount = 0;
+        depth = 0;
+        if (coverGivens(board)) search();
+        while (depth > 0) unselect(stack[--depth]);
+        return solutionCount;
+    }
+
+    private boolean coverGivens(int[][] board) {
+        for (int cell = 0; cell < solution.length; cell++) {
+            int value = board[cell / size][cell % size];
+            if (value == 0) continue;
+            if (value < 0 || value > size) return false;
+            int node = optionNode[cell * size + value - 1];
+            // A covered constraint means an earlier given already claimed it
+            int n = node;
+            do {
+                if (isCovered(column[n])) return false;
+                n = right[n];
+            } while (n != node);
+            select(node);
+            stack[depth++] = node;
+        }
+        return true;
+    }
+
+    private boolean isCovered(int col) {
+        return right[left[col]] != col;
+    }
+
+    /** Returns true once the solution limit is reached. */
+    private boolean search() {
+        if (right[root] == root) {
+            if (solutionCount == 0) record();
+            return ++solutionCount >= solutionLimit;
+        }
+
+        int best = right[root], bestCount = count[best];
+        for (int c = right[best]; c != root && bestCount > 1; c = right[c]) {
+            if (count[c] < bestCount) {
+                best = c;
+                bestCount = count[c];
+            }
+        }
+        if (bestCount == 0) return false;
+
+        cover(best);
+        for (int r = down[best]; r != best; r = down[r]) {
+            for (int n = right[r]; n != r; n = right[n]) cover(column[n]);
+            stack[depth++] = r;
+            boolean done = search();
+            depth--;
+            for (int n = left[r]; n != r; n = left[n]) uncover(column[n]);
+            if (done) {
+                uncover(best);
+                return true;
+            }
+        }
+        uncover(best);
+        return false;
+    }
+
+    private void record() {
+        for (int i = 0; i < depth; i++) {
+            // Options own four consecutive nodes, so any of them identifies the option
+            int option = (stack[i] - columns - 1) >> 2;
+            solution[option / size] = option % size + 1;
+        }
+    }
+
+    private void select(int node) {
+        int n = node;
+        do {
+            cover(column[n]);
+            n = right[n];
+        } while (n != node);
+    }
+
+    private void unselect(int node) {
+        int n = node;
+        do {
+            n = left[n];
+            uncover(column[n]);
+        } while (n != node);
+    }
+
+    private void cover(int col) {
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int r = down[col]; r != col; r = down[r]) {
+            for (int n = right[r]; n != r; n = right[n]) {
+                down[up[n]] = down[n];
+                up[down[n]] = up[n];
+                count[column[n]]--;
+            }
+        }
+    }
+
+    private void uncover(int col) {
+        for (int r = up[col]; r != col; r = up[r]) {
+            for (int n = left[r]; n != r; n = left[n]) {
+                count[column[n]]++;
+                down[up[n]] = n;
+                up[down[n]] = n;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Monotonic time source for game timing, in milliseconds. The app plugs in
+ * the platform's elapsed-realtime clock; JVM callers can use {@link #SYSTEM}
+ * or drive a fake clock by hand.
+ */
+public interface GameClock {
+    GameClock SYSTEM = () -> System.nanoTime() / 1_000_000L;
+
+    long now();
+}
@@ -0,0 +1,431 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Headless game loop: the puzzle, the player's moves and undo history,
+ * completion and the countdown. It has no Android dependencies, so a whole
+ * game can be played and profiled on a plain JVM; GameViewModel wraps one
+ * and turns its results into LiveData.
+ *
+ * Moves returned by {@link #undoLastMove()} and {@link #redoMove()} are
+ * packed into an int as row, column, value before and value after, four bits
+ * each, the same way they are kept in the {@link MoveJournal}. Pencil-mark
+ * changes are journal entries too: they carry {@link #isNoteMove a flag} and
+ * the note bits they toggle, so applying one twice undoes it. Their value
+ * bits are zero, which is right since only empty cells take notes. Placing a digit
+ * clears it from the notes of the cell's 20 peers, and each peer it was
+ * cleared from gets an entry linked to the placement, so undo and redo
+ * treat the group as one move.
+ */
+public class GameSession {
+    public static final int NO_MOVE = -1;
+    public static final int NO_CELL = -1;
+
+    private static final int NOTE = 1 << 30;
+    // Set on the note entries that belong to the move recorded before them
+    private static final int LINKED = 1 << 29;
+    private static final int[] PEERS = Units.PEERS;
+
+    private final SudokuModel model = new SudokuModel();
+    private final GameClock clock;
+    private final MoveJournal journal = new MoveJournal();
+
+    private int difficulty;
+    private long timeLimit;
+    private long startedAt;
+    private long finishedAt = -1;
+    private long pausedAt = -1;
+    private int mistakes;
+    // Moves as the player sees them; a placement and its linked note entries count once
+    private int movePosition, moveCount;
+
+    public GameSession() {
+        this(GameClock.SYSTEM);
+    }
+
+    public GameSession(GameClock clock) {
+        this.clock = clock;
+    }
+
+    public static long timeLimitFor(int difficulty) {
+        return difficulty == 1 ? 900_000 : difficulty == 3 ? 420_000 : 600_000;
+    }
+
+    public void start(Puzzle puzzle, int difficulty) {
+        model.generateBoard(puzzle);
+        clearJournal();
+        mistakes = 0;
+        this.difficulty = difficulty;
+        timeLimit = timeLimitFor(difficulty);
+        startedAt = clock.now();
+        finishedAt = -1;
+        pausedAt = -1;
+    }
+
+    /** Captures the game so it can be resumed with {@link #restore}. */
+    public GameSnapshot snapshot() {
+        int[][] givens = new int[9][9];
+        int[][] entries = new int[9][9];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int value = model.getValue(row, col);
+                if (model.isFixed(row, col)) givens[row][col] = value;
+                else entries[row][col] = value;
+            }
+        }
+        short[] notes = new short[81];
+        for (int cell = 0; cell < 81; cell++) {
+            notes[cell] = (short) model.getNotes(cell / 9, cell % 9);
+        }
+        return new GameSnapshot(difficulty, timeLimit, getRemainingMillis(), mistakes, givens, entries, notes,
+                journal.toArray(), journal.position());
+    }
+
+    /**
+     * Resumes a game from a snapshot, with the countdown continuing from where
+     * it stopped. The undo history is kept only if replaying it over the
+     * givens reproduces the saved entries; otherwise the game resumes without
+     * it.
+     */
+    public void restore(GameSnapshot snapshot) {
+        try {
+            model.generateBoard(Puzzle.of(snapshot.givens));
+        } catch (IllegalArgumentException e) {
+            model.generateBoard(snapshot.givens);
+        }
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (snapshot.entries[row][col] != 0) model.setValue(row, col, snapshot.entries[row][col]);
+                if (!model.isFixed(row, col)) {
+                    model.getPackedBoard().setNotes(row, col, snapshot.notes[row * 9 + col]);
+                }
+            }
+        }
+        clearJournal();
+        if (replays(snapshot)) {
+            journal.load(snapshot.moves, snapshot.moveCount, snapshot.movePosition);
+            for (int i = 0; i < snapshot.moveCount; i++) {
+                if ((snapshot.moves[i] & LINKED) != 0) continue;
+                moveCount++;
+                if (i < snapshot.movePosition) movePosition++;
+            }
+        }
+        difficulty = snapshot.difficulty;
+        mistakes = snapshot.mistakes;
+        timeLimit = snapshot.timeLimit;
+        startedAt = clock.now() - (timeLimit - snapshot.remainingMillis);
+        finishedAt = model.isSolved() ? clock.now() : -1;
+        pausedAt = -1;
+    }
+
+    /** Clears every entry and the undo history, and restarts the countdown. */
+    public void reset() {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (!model.isFixed(row, col)) model.setValue(row, col, 0);
+            }
+        }
+        model.getPackedBoard().clearNotes();
+        clearJournal();
+        mistakes = 0;
+        startedAt = clock.now();
+        finishedAt = -1;
+        pausedAt = -1;
+    }
+
+    private void clearJournal() {
+        journal.clear();
+        movePosition = 0;
+        moveCount = 0;
+    }
+
+    private void recordMove(int move) {
+        journal.record(move);
+        movePosition++;
+        moveCount = movePosition;
+    }
+
+    /**
+     * Writes a value (0 erases) into an editable cell. Returns false when the
+     * cell is fixed or already holds the value, in which case nothing is
+     * recorded. A digit that disagrees with the solution counts as a mistake,
+     * even if it is later undone.
+     */
+    public boolean setCellValue(int row, int col, int value) {
+        if (model.isFixed(row, col)) return false;
+        int current = model.getValue(row, col);
+        if (current == value) return false;
+
+        recordMove(pack(row, col, current, value));
+        apply(row, col, value);
+        if (value != 0) eliminateFromPeers(row * 9 + col, 1 << (value - 1));
+        if (model.isWrong(row, col)) mistakes++;
+        return true;
+    }
+
+    // Clears the digit from the notes of every peer that has it, one table lookup per peer
+    private void eliminateFromPeers(int cell, int bit) {
+        SudokuBoard board = model.getPackedBoard();
+        for (int i = cell * 20, end = i + 20; i < end; i++) {
+            int peer = PEERS[i];
+            if ((board.getNotes(peer) & bit) != 0) {
+                board.flipNotes(peer, bit);
+                journal.record(LINKED | noteEntry(peer / 9, peer % 9, bit));
+            }
+        }
+    }
+
+    /**
+     * Toggles a pencil mark in an empty editable cell. Returns false, and
+     * records nothing, for fixed or filled cells.
+     */
+    public boolean toggleNote(int row, int col, int digit) {
+        if (model.isFixed(row, col) || model.getValue(row, col) != 0) return false;
+
+        int bit = 1 << (digit - 1);
+        recordMove(noteEntry(row, col, bit));
+        model.getPackedBoard().flipNotes(row * 9 + col, bit);
+        return true;
+    }
+
+    /** Reverts the last move and returns it packed, or {@link #NO_MOVE} when there is none. */
+    public int undoLastMove() {
+        if (!journal.canUndo()) return NO_MOVE;
+
+        int move = journal.undo();
+        while ((move & LINKED) != 0) {
+            revert(move);
+            move = journal.undo();
+        }
+        movePosition--;
+        if ((move & NOTE) != 0) {
+            revert(move);
+            return move;
+        }
+        int row = moveRow(move), col = moveCol(move);
+        apply(row, col, moveOldValue(move));
+        return pack(row, col, moveNewValue(move), moveOldValue(move));
+    }
+
+    /** Applies the last undone move again and returns it, or {@link #NO_MOVE} when there is none. */
+    public int redoMove() {
+        if (!journal.canRedo()) return NO_MOVE;
+
+        int move = journal.redo();
+        movePosition++;
+        if ((move & NOTE) != 0) {
+            revert(move);
+        } else {
+            apply(moveRow(move), moveCol(move), moveNewValue(move));
+        }
+        while (journal.canRedo() && (journal.get(journal.position()) & LINKED) != 0) {
+            revert(journal.redo());
+        }
+        return move;
+    }
+
+    // Note entries toggle bits, so reverting one and applying it again are the same
+    private void revert(int noteMove) {
+        model.getPackedBoard().flipNotes(moveRow(noteMove) * 9 + moveCol(noteMove), moveNotes(noteMove));
+    }
+
+    private static int noteEntry(int row, int col, int bits) {
+        return NOTE | bits << 16 | row << 12 | col << 8;
+    }
+
+    /** True for moves that toggled pencil marks rather than changing a value. */
+    public static boolean isNoteMove(int move) {
+        return (move & NOTE) != 0;
+    }
+
+    /** The note bits a note move toggled, as a 9-bit mask. */
+    public static int moveNotes(int move) {
+        return move >>> 16 & 0x1FF;
+    }
+
+    public int getNotes(int row, int col) {
+        return model.getNotes(row, col);
+    }
+
+    public boolean canUndo() {
+        return journal.canUndo();
+    }
+
+    public boolean canRedo() {
+        return journal.canRedo();
+    }
+
+    /** Moves in effect; undone moves that can be redone are not counted. */
+    public int getMovePosition() {
+        return movePosition;
+    }
+
+    /** Moves recorded, including undone ones that can be redone. */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    private void apply(int row, int col, int value) {
+        model.setValue(row, col, value);
+        if (finishedAt < 0 && model.isSolved()) {
+            finishedAt = pausedAt >= 0 ? pausedAt : clock.now();
+        }
+    }
+
+    private static boolean replays(GameSnapshot snapshot) {
+        int count = snapshot.moveCount, position = snapshot.movePosition;
+        if (snapshot.moves.length < count || position < 0 || position > count) return false;
+        if (count > 0 && (snapshot.moves[0] & LINKED) != 0) return false;
+        if (position < count && (snapshot.moves[position] & LINKED) != 0) return false;
+
+        int[][] board = new int[9][];
+        for (int row = 0; row < 9; row++) board[row] = snapshot.givens[row].clone();
+        for (int i = 0; i <= count; i++) {
+            if (i == position) {
+                for (int row = 0; row < 9; row++) {
+                    for (int col = 0; col < 9; col++) {
+                        int expected = snapshot.givens[row][col] != 0 ? snapshot.givens[row][col] : snapshot.entries[row][col];
+                        if (board[row][col] != expected) return false;
+                    }
+                }
+            }
+            if (i == count) break;
+            int move = snapshot.moves[i];
+            int row = moveRow(move), col = moveCol(move);
+            if ((move & NOTE) != 0) {
+                if (row > 8 || col > 8) return false;
+                continue;
+            }
+            if (row > 8 || col > 8 || snapshot.givens[row][col] != 0
+                    || board[row][col] != moveOldValue(move) || moveNewValue(move) > 9) {
+                return false;
+            }
+            board[row][col] = moveNewValue(move);
+        }
+        return true;
+    }
+
+    static int pack(int row, int col, int oldValue, int newValue) {
+        return row << 12 | col << 8 | oldValue << 4 | newValue;
+    }
+
+    public static int moveRow(int move) { return move >>> 12 & 0xF; }
+    public static int moveCol(int move) { return move >>> 8 & 0xF; }
+    public static int moveOldValue(int move) { return move >>> 4 & 0xF; }
+    public static int moveNewValue(int move) { return move & 0xF; }
+
+    /** True once the board is full and every entry matches the solution. */
+    public boolean isCompleted() {
+        return model.isSolved();
+    }
+
+    /** True when every cell is filled, whether or not the entries are right. */
+    public boolean isBoardFull() {
+        return model.isBoardFull();
+    }
+
+    /** True when the cell holds an entry that disagrees with the solution. */
+    public boolean isWrong(int row, int col) {
+        return model.isWrong(row, col);
+    }
+
+    public int getMistakeCount() {
+        return mistakes;
+    }
+
+    /** Time left on the countdown; frozen while paused and once the board is solved. */
+    public long getRemainingMillis() {
+        long now = finishedAt >= 0 ? finishedAt : pausedAt >= 0 ? pausedAt : clock.now();
+        return Math.max(0, timeLimit - (now - startedAt));
+    }
+
+    /** Remaining time in whole seconds, rounded up, the way a countdown shows it. */
+    public int getRemainingSeconds() {
+        return (int) ((getRemainingMillis() + 999) / 1000);
+    }
+
+    /**
+     * How long until {@link #getRemainingSeconds()} next changes, so a ticker
+     * can sleep exactly that long; 0 once the countdown has stopped.
+     */
+    public long getMillisUntilNextSecond() {
+        long remaining = getRemainingMillis();
+        if (remaining == 0 || finishedAt >= 0 || pausedAt >= 0) return 0;
+        long fraction = remaining % 1000;
+        return fraction == 0 ? 1000 : fraction;
+    }
+
+    /** Stops the countdown, e.g. while the app is in the background. */
+    public void pause() {
+        if (pausedAt < 0 && finishedAt < 0) pausedAt = clock.now();
+    }
+
+    /** Continues a paused countdown from where it stopped. */
+    public void resume() {
+        if (pausedAt < 0) return;
+        startedAt += clock.now() - pausedAt;
+        pausedAt = -1;
+    }
+
+    public boolean isPaused() {
+        return pausedAt >= 0;
+    }
+
+    public boolean isTimeUp() {
+        return !isCompleted() && getRemainingMillis() == 0;
+    }
+
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public SudokuModel getModel() {
+        return model;
+    }
+
+    public int getValue(int row, int col) {
+        return model.getValue(row, col);
+    }
+
+    public boolean isFixed(int row, int col) {
+        return model.isFixed(row, col);
+    }
+
+    public boolean isConflict(int row, int col) {
+        return model.isConflict(row, col);
+    }
+
+    public boolean isMoveValid(int row, int col, int value) {
+        return model.isMoveValid(row, col, value);
+    }
+
+    public int getCandidateMask(int row, int col) {
+        return model.getCandidateMask(row, col);
+    }
+
+    /**
+     * Next empty cell after the given one in reading order, wrapping around
+     * to the start, as row * 9 + col; {@link #NO_CELL} when the board is full.
+     * Pass a column of -1 to start from the beginning of the row.
+     */
+    public int nextEmptyCell(int row, int col) {
+        return model.nextEmptyCell(row * 9 + col);
+    }
+
+    /** Like {@link #nextEmptyCell} but searching backwards, wrapping around to the end. */
+    public int previousEmptyCell(int row, int col) {
+        return model.previousEmptyCell(row * 9 + col);
+    }
+
+    /**
+     * The empty cell with the fewest candidates, as row * 9 + col, or
+     * {@link #NO_CELL} when the board is full. Ties go to the first cell
+     * after the given one, so jumping again moves on to the next of them.
+     */
+    public int mostConstrainedCell(int row, int col) {
+        return model.mostConstrainedCell(row * 9 + col);
+    }
+}
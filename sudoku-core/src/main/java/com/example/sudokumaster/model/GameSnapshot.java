@@ -0,0 +1,118 @@
+package com.example.sudokumaster.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Everything needed to resume a game: the givens, the player's entries and
+ * pencil marks, the move journal and the clock. {@link #writeTo} writes a
+ * compact record: the givens and entries are variable-length
+ * {@link PuzzleCodec} boards (the givens' mask doubles as the fixed-cell
+ * mask), then one short of notes per cell and the journal's length and
+ * position. The journal's moves themselves are not part of the record;
+ * {@link SnapshotStore} appends them to a file of their own so a save only
+ * writes the moves made since the last one.
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x53444B53; // "SDKS"
+    private static final int FORMAT = 4;
+
+    final int difficulty;
+    final long timeLimit;
+    final long remainingMillis;
+    final int mistakes;
+    final int[][] givens;
+    final int[][] entries;
+    final short[] notes;
+    final int[] moves;
+    final int moveCount;
+    final int movePosition;
+
+    GameSnapshot(int difficulty, long timeLimit, long remainingMillis, int mistakes, int[][] givens,
+                 int[][] entries, short[] notes, int[] moves, int movePosition) {
+        this(difficulty, timeLimit, remainingMillis, mistakes, givens, entries, notes, moves, moves.length,
+                movePosition);
+    }
+
+    private GameSnapshot(int difficulty, long timeLimit, long remainingMillis, int mistakes, int[][] givens,
+                         int[][] entries, short[] notes, int[] moves, int moveCount, int movePosition) {
+        this.difficulty = difficulty;
+        this.timeLimit = timeLimit;
+        this.remainingMillis = remainingMillis;
+        this.mistakes = mistakes;
+        this.givens = givens;
+        this.entries = entries;
+        this.notes = notes;
+        this.moves = moves;
+        this.moveCount = moveCount;
+        this.movePosition = movePosition;
+    }
+
+    /** The same snapshot with the journal moves read back from their own file. */
+    GameSnapshot withMoves(int[] moves) {
+        return new GameSnapshot(difficulty, timeLimit, remainingMillis, mistakes, givens, entries, notes,
+                moves, moveCount, movePosition);
+    }
+
+    public int getDifficulty() {
+        return difficulty;
+    }
+
+    public long getRemainingMillis() {
+        return remainingMillis;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT);
+        out.writeByte(difficulty);
+        out.writeLong(timeLimit);
+        out.writeLong(remainingMillis);
+        out.writeInt(mistakes);
+        writeBoard(out, givens);
+        writeBoard(out, entries);
+        for (short mask : notes) out.writeShort(mask);
+        out.writeInt(moveCount);
+        out.writeInt(movePosition);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo}, without its moves; throws
+     * IOException on anything malformed.
+     */
+    public static GameSnapshot readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readUnsignedByte() != FORMAT) {
+            throw new IOException("Not a game snapshot");
+        }
+        int difficulty = in.readUnsignedByte();
+        long timeLimit = in.readLong();
+        long remaining = in.readLong();
+        int mistakes = in.readInt();
+        int[][] givens = readBoard(in);
+        int[][] entries = readBoard(in);
+        short[] notes = new short[81];
+        for (int cell = 0; cell < 81; cell++) notes[cell] = (short) (in.readShort() & 0x1FF);
+        int count = in.readInt();
+        int position = in.readInt();
+        if (count < 0 || position < 0 || position > count) throw new IOException("Bad journal length " + count);
+        return new GameSnapshot(difficulty, timeLimit, remaining, mistakes, givens, entries, notes,
+                new int[0], count, position);
+    }
+
+    private static void writeBoard(DataOutputStream out, int[][] board) throws IOException {
+        byte[] packed = PuzzleCodec.encode(board);
+        out.writeByte(packed.length);
+        out.write(packed);
+    }
+
+    private static int[][] readBoard(DataInputStream in) throws IOException {
+        byte[] packed = new byte[in.readUnsignedByte()];
+        in.readFully(packed);
+        try {
+            return PuzzleCodec.decode(packed);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt board", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.sudokumaster.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives new solution grids from known ones in a single pass over the 81
+ * cells, using only transforms that keep a grid valid: relabelling the
+ * digits, swapping rows within a band, swapping bands, the same for columns
+ * and stacks, and transposing. Every source grid yields over a trillion
+ * distinct grids this way.
+ *
+ * The library starts with a handful of built-in grids and keeps the most
+ * recent grids passed to {@link #add}, so feeding it freshly solved grids
+ * widens the variety over time.
+ */
+public class GridTransformer {
+    private static final int CAPACITY = 16;
+    private static final String[] SEED_GRIDS = {
+            "197263458586741239324589176718495623239618745465327981841932567653174892972856314",
+            "723581496658493127149627358416839275837265941592714683365972814984156732271348569",
+            "852691743319784625746235891295147368678953412431826957524379186187462539963518274",
+            "651347829423819576987526314398475261742168953165293748534682197819754632276931485",
+    };
+
+    private final byte[][] library = new byte[CAPACITY][81];
+    private int size;
+    private int next;
+
+    private final int[] digits = new int[10];
+    private final int[] rows = new int[9];
+    private final int[] cols = new int[9];
+
+    public GridTransformer() {
+        for (String grid : SEED_GRIDS) {
+            byte[] packed = library[size++];
+            for (int i = 0; i < 81; i++) packed[i] = (byte) (grid.charAt(i) - '0');
+        }
+        next = size;
+    }
+
+    /** Adds a solved grid to the library, replacing the oldest one once it is full. */
+    public void add(int[][] grid) {
+        byte[] packed = library[next];
+        for (int i = 0; i < 81; i++) packed[i] = (byte) grid[i / 9][i % 9];
+        next = (next + 1) % CAPACITY;
+        if (size < CAPACITY) size++;
+    }
+
+    /** Fills {@code out} with a random transform of a random grid from the library. */
+    public void next(int[][] out, SplittableRandom random) {
+        byte[] source = library[random.nextInt(size)];
+
+        digits[0] = 0;
+        for (int d = 1; d <= 9; d++) {
+            int j = 1 + random.nextInt(d);
+            digits[d] = digits[j];
+            digits[j] = d;
+        }
+        shuffleLines(rows, random);
+        shuffleLines(cols, random);
+
+        boolean transpose = random.nextBoolean();
+        for (int r = 0; r < 9; r++) {
+            int base = rows[r] * 9;
+            int[] row = out[r];
+            for (int c = 0; c < 9; c++) {
+                int value = digits[source[base + cols[c]]];
+                if (transpose) out[c][r] = value;
+                else row[c] = value;
+            }
+        }
+    }
+
+    /** Random order of the three bands (or stacks), then of the three lines within each. */
+    private static void shuffleLines(int[] lines, SplittableRandom random) {
+        int[] bands = {0, 1, 2};
+        for (int i = 2; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = bands[i];
+            bands[i] = bands[j];
+            bands[j] = tmp;
+        }
+        for (int b = 0; b < 3; b++) {
+            int first = bands[b] * 3;
+            lines[b * 3] = first;
+            int j = random.nextInt(2);
+            lines[b * 3 + 1] = first + 1 + j;
+            lines[b * 3 + 2] = first + 2 - j;
+            int k = random.nextInt(3);
+            int tmp = lines[b * 3];
+            lines[b * 3] = lines[b * 3 + k];
+            lines[b * 3 + k] = tmp;
+        }
+    }
+}
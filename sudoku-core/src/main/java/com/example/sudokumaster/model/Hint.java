@@ -0,0 +1,38 @@
+package com.example.sudokumaster.model;
+
+/**
+ * A suggestion from {@link HintEngine}: a digit for one cell and why.
+ * Cells are given as row * 9 + col.
+ */
+public class Hint {
+    public enum Kind {
+        /** The digit follows from {@link #getTechnique()} and the supporting cells. */
+        LOGIC,
+        /** The player's entry in the cell disagrees with the solution; the digit is the correct one. */
+        MISTAKE,
+        /** No known technique applies, so the cell is simply revealed from the solution. */
+        REVEAL
+    }
+
+    private final Kind kind;
+    private final Technique technique;
+    private final int cell;
+    private final int digit;
+    private final int[] supportingCells;
+
+    Hint(Kind kind, Technique technique, int cell, int digit, int[] supportingCells) {
+        this.kind = kind;
+        this.technique = technique;
+        this.cell = cell;
+        this.digit = digit;
+        this.supportingCells = supportingCells;
+    }
+
+    public Kind getKind() { return kind; }
+    /** Hardest technique needed to reach the placement; null unless the kind is LOGIC. */
+    public Technique getTechnique() { return technique; }
+    public int getRow() { return cell / 9; }
+    public int getCol() { return cell % 9; }
+    public int getDigit() { return digit; }
+    public int[] getSupportingCells() { return supportingCells.clone(); }
+}
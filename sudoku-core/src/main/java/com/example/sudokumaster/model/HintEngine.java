@@ -0,0 +1,56 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+
+/**
+ * Works out the next step for the player from the board as it stands. Wrong
+ * entries are reported first, since no deduction is sound on top of them.
+ * Otherwise the {@link LogicalSolver} runs from the current position until
+ * it places a digit; candidate eliminations on the way are folded into the
+ * hint's technique, so every hint fills a cell. Boards that need more than
+ * the known techniques fall back to revealing a cell from the solution.
+ *
+ * Instances keep solver buffers and are not thread-safe; GameViewModel uses
+ * one from its hint thread only.
+ */
+public class HintEngine {
+    private static final int[] NO_CELLS = new int[0];
+
+    private final LogicalSolver solver = new LogicalSolver();
+    private final int[] support = new int[20];
+
+    /**
+     * Finds a hint for the board, checking entries against the solution when
+     * one is given. Returns null when the board is full or, without a
+     * solution, no technique applies.
+     */
+    public Hint findHint(int[][] board, byte[] solution) {
+        if (solution != null) {
+            for (int cell = 0; cell < 81; cell++) {
+                int value = board[cell / 9][cell % 9];
+                if (value != 0 && value != solution[cell]) {
+                    return new Hint(Hint.Kind.MISTAKE, null, cell, solution[cell], NO_CELLS);
+                }
+            }
+        }
+        if (!solver.load(board)) return null;
+
+        Technique hardest = null;
+        for (Technique technique = solver.step(); technique != null; technique = solver.step()) {
+            if (hardest == null || technique.ordinal() > hardest.ordinal()) hardest = technique;
+            int cell = solver.getLastCell();
+            if (cell >= 0) {
+                int count = solver.getSupportingCells(support);
+                return new Hint(Hint.Kind.LOGIC, hardest, cell, solver.getLastDigit(), Arrays.copyOf(support, count));
+            }
+        }
+
+        if (solution == null) return null;
+        for (int cell = 0; cell < 81; cell++) {
+            if (board[cell / 9][cell % 9] == 0) {
+                return new Hint(Hint.Kind.REVEAL, null, cell, solution[cell], NO_CELLS);
+            }
+        }
+        return null;
+    }
+}
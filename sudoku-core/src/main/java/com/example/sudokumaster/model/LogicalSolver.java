@@ -0,0 +1,393 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+
+/**
+ * Solves a 9x9 board the way a person would, applying the cheapest
+ * {@link Technique} that makes progress and starting over after each step.
+ * Grading records how often each technique was needed and sums their costs
+ * into a rating; a board that needs guessing gets {@link #UNSOLVABLE}.
+ *
+ * Candidates are kept as 9-bit masks per cell and reused between calls, so
+ * grading does not allocate. Instances are not thread-safe.
+ */
+public class LogicalSolver {
+    public static final int UNSOLVABLE = -1;
+
+    private static final int[] ROW_OF = Units.ROW_OF;
+    private static final int[] COL_OF = Units.COL_OF;
+    private static final int[] BOX_OF = Units.BOX_OF;
+    private static final int[] UNITS = Units.CELLS;
+    private static final int[] PEERS = Units.PEERS;
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    private final byte[] values = new byte[81];
+    private final short[] candidates = new short[81];
+    private final int[] counts = new int[TECHNIQUES.length];
+    private int emptyCount;
+    private int rating;
+    private Technique hardest;
+    private int lastCell = -1, lastDigit, lastUnit = -1;
+
+    /**
+     * Grades the board without modifying it. Returns the rating, or
+     * {@link #UNSOLVABLE} when the techniques run out before the board is
+     * solved or the givens are contradictory.
+     */
+    public int grade(int[][] board) {
+        if (!load(board)) {
+            rating = UNSOLVABLE;
+            return rating;
+        }
+        while (emptyCount > 0) {
+            if (step() == null) {
+                rating = UNSOLVABLE;
+                break;
+            }
+        }
+        return rating;
+    }
+
+    /** Loads the board and computes candidates; false when the givens clash. */
+    public boolean load(int[][] board) {
+        Arrays.fill(counts, 0);
+        rating = 0;
+        hardest = null;
+        emptyCount = 81;
+        Arrays.fill(candidates, (short) 0x1FF);
+        Arrays.fill(values, (byte) 0);
+        for (int cell = 0; cell < 81; cell++) {
+            int value = board[ROW_OF[cell]][COL_OF[cell]];
+            if (value == 0) continue;
+            if ((candidates[cell] & (1 << (value - 1))) == 0) return false;
+            place(cell, value);
+        }
+        return true;
+    }
+
+    /**
+     * Applies the cheapest technique that makes progress and returns it, or
+     * null when none does (the board is solved, stuck or contradictory).
+     */
+    public Technique step() {
+        lastCell = -1;
+        lastUnit = -1;
+        if (emptyCount == 0) return null;
+        for (Technique technique : TECHNIQUES) {
+            if (apply(technique)) {
+                counts[technique.ordinal()]++;
+                rating += technique.cost;
+                if (hardest == null || technique.ordinal() > hardest.ordinal()) {
+                    hardest = technique;
+                }
+                return technique;
+            }
+        }
+        return null;
+    }
+
+    private boolean apply(Technique technique) {
+        switch (technique) {
+            case NAKED_SINGLE: return nakedSingle();
+            case HIDDEN_SINGLE: return hiddenSingle();
+            case POINTING: return pointing();
+            case BOX_LINE_REDUCTION: return boxLineReduction();
+            case NAKED_PAIR: return nakedPair();
+            case HIDDEN_PAIR: return hiddenPair();
+            case X_WING: return xWing();
+            default: return false;
+        }
+    }
+
+    private void place(int cell, int digit) {
+        int clear = ~(1 << (digit - 1));
+        values[cell] = (byte) digit;
+        candidates[cell] = 0;
+        for (int i = cell * 20, end = i + 20; i < end; i++) {
+            candidates[PEERS[i]] &= clear;
+        }
+        emptyCount--;
+    }
+
+    private void placed(int cell, int digit, int unit) {
+        place(cell, digit);
+        lastCell = cell;
+        lastDigit = digit;
+        lastUnit = unit;
+    }
+
+    private boolean nakedSingle() {
+        for (int cell = 0; cell < 81; cell++) {
+            int cand = candidates[cell];
+            if (values[cell] == 0 && cand != 0 && (cand & (cand - 1)) == 0) {
+                placed(cell, Integer.numberOfTrailingZeros(cand) + 1, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSingle() {
+        for (int unit = 0; unit < 27; unit++) {
+            int base = unit * 9;
+            int once = 0, twice = 0;
+            for (int i = 0; i < 9; i++) {
+                int cand = candidates[UNITS[base + i]];
+                twice |= once & cand;
+                once |= cand;
+            }
+            int singles = once & ~twice;
+            if (singles == 0) continue;
+            int bit = singles & -singles;
+            for (int i = 0; i < 9; i++) {
+                int cell = UNITS[base + i];
+                if ((candidates[cell] & bit) != 0) {
+                    placed(cell, Integer.numberOfTrailingZeros(bit) + 1, unit);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Removes the digits in mask from every cell of the unit not in keep; true if anything changed
+    private boolean eliminate(int unit, int mask, int keepA, int keepB, int keepC) {
+        boolean changed = false;
+        for (int i = unit * 9, end = i + 9; i < end; i++) {
+            int cell = UNITS[i];
+            if (cell == keepA || cell == keepB || cell == keepC) continue;
+            if ((candidates[cell] & mask) != 0) {
+                candidates[cell] &= ~mask;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /** A digit confined to one row or column of a box is removed from the rest of that line. */
+    private boolean pointing() {
+        for (int box = 0; box < 9; box++) {
+            int base = (18 + box) * 9;
+            for (int digit = 0; digit < 9; digit++) {
+                int bit = 1 << digit;
+                int row = -1, col = -1, found = 0;
+                for (int i = 0; i < 9; i++) {
+                    int cell = UNITS[base + i];
+                    if ((candidates[cell] & bit) == 0) continue;
+                    row = found == 0 || row == ROW_OF[cell] ? ROW_OF[cell] : -2;
+                    col = found == 0 || col == COL_OF[cell] ? COL_OF[cell] : -2;
+                    found++;
+                }
+                if (found < 2) continue;
+                if (row >= 0 && eliminateOutsideBox(row, box, bit)) return true;
+                if (col >= 0 && eliminateOutsideBox(9 + col, box, bit)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean eliminateOutsideBox(int line, int box, int bit) {
+        boolean changed = false;
+        for (int i = line * 9, end = i + 9; i < end; i++) {
+            int cell = UNITS[i];
+            if (BOX_OF[cell] != box && (candidates[cell] & bit) != 0) {
+                candidates[cell] &= ~bit;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /** A digit confined to one box within a row or column is removed from the rest of that box. */
+    private boolean boxLineReduction() {
+        for (int line = 0; line < 18; line++) {
+            int base = line * 9;
+            for (int digit = 0; digit < 9; digit++) {
+                int bit = 1 << digit;
+                int box = -1, found = 0;
+                for (int i = 0; i < 9; i++) {
+                    int cell = UNITS[base + i];
+                    if ((candidates[cell] & bit) == 0) continue;
+                    box = found == 0 || box == BOX_OF[cell] ? BOX_OF[cell] : -2;
+                    found++;
+                }
+                if (found < 2 || box < 0) continue;
+                boolean changed = false;
+                for (int i = (18 + box) * 9, end = i + 9; i < end; i++) {
+                    int cell = UNITS[i];
+                    boolean onLine = line < 9 ? ROW_OF[cell] == line : COL_OF[cell] == line - 9;
+                    if (!onLine && (candidates[cell] & bit) != 0) {
+                        candidates[cell] &= ~bit;
+                        changed = true;
+                    }
+                }
+                if (changed) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Two cells of a unit with the same two candidates take both digits away from the rest. */
+    private boolean nakedPair() {
+        for (int unit = 0; unit < 27; unit++) {
+            int base = unit * 9;
+            for (int i = 0; i < 9; i++) {
+                int a = UNITS[base + i];
+                int mask = candidates[a];
+                if (Integer.bitCount(mask) != 2) continue;
+                for (int j = i + 1; j < 9; j++) {
+                    int b = UNITS[base + j];
+                    if (candidates[b] == mask && eliminate(unit, mask, a, b, -1)) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Two digits that fit only the same two cells of a unit clear every other candidate there. */
+    private boolean hiddenPair() {
+        for (int unit = 0; unit < 27; unit++) {
+            int base = unit * 9;
+            for (int d1 = 0; d1 < 9; d1++) {
+                int cells1 = positions(base, 1 << d1);
+                if (Integer.bitCount(cells1) != 2) continue;
+                for (int d2 = d1 + 1; d2 < 9; d2++) {
+                    if (positions(base, 1 << d2) != cells1) continue;
+                    int keep = (1 << d1) | (1 << d2);
+                    boolean changed = false;
+                    for (int i = 0; i < 9; i++) {
+                        int cell = UNITS[base + i];
+                        if ((cells1 & (1 << i)) != 0 && (candidates[cell] & ~keep) != 0) {
+                            candidates[cell] &= keep;
+                            changed = true;
+                        }
+                    }
+                    if (changed) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Positions within the unit (bit i = i-th cell) where the digit is still a candidate
+    private int positions(int base, int bit) {
+        int positions = 0;
+        for (int i = 0; i < 9; i++) {
+            if ((candidates[UNITS[base + i]] & bit) != 0) positions |= 1 << i;
+        }
+        return positions;
+    }
+
+    /**
+     * A digit that fits exactly the same two columns in two rows can be removed
+     * from those columns in every other row, and the same with rows and columns
+     * swapped.
+     */
+    private boolean xWing() {
+        for (int digit = 0; digit < 9; digit++) {
+            int bit = 1 << digit;
+            for (int orientation = 0; orientation < 2; orientation++) {
+                int lineBase = orientation * 9;
+                for (int a = 0; a < 9; a++) {
+                    int posA = positions((lineBase + a) * 9, bit);
+                    if (Integer.bitCount(posA) != 2) continue;
+                    for (int b = a + 1; b < 9; b++) {
+                        if (positions((lineBase + b) * 9, bit) != posA) continue;
+                        boolean changed = false;
+                        int cross = orientation == 0 ? 9 : 0;
+                        for (int p = posA; p != 0; p &= p - 1) {
+                            int line = cross + Integer.numberOfTrailingZeros(p);
+                            for (int i = line * 9, end = i + 9; i < end; i++) {
+                                int cell = UNITS[i];
+                                int along = orientation == 0 ? ROW_OF[cell] : COL_OF[cell];
+                                if (along != a && along != b && (candidates[cell] & bit) != 0) {
+                                    candidates[cell] &= ~bit;
+                                    changed = true;
+                                }
+                            }
+                        }
+                        if (changed) return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Cell the last {@link #step()} filled, as row * 9 + col, or -1 if it only removed candidates. */
+    public int getLastCell() {
+        return lastCell;
+    }
+
+    public int getLastDigit() {
+        return lastDigit;
+    }
+
+    /**
+     * Cells that justify the last placement: for a naked single the filled
+     * peers that rule out every other digit, for a hidden single one filled
+     * cell holding the digit for each other open cell of the unit. Writes them
+     * into {@code out} (room for 20 is enough) and returns how many there are.
+     * Open cells ruled out by candidate eliminations have no such cell.
+     */
+    public int getSupportingCells(int[] out) {
+        if (lastCell < 0) return 0;
+        int size = 0;
+        if (lastUnit < 0) {
+            int seen = 0;
+            for (int i = lastCell * 20, end = i + 20; i < end; i++) {
+                int peer = PEERS[i];
+                int bit = 1 << values[peer] >> 1;
+                if (bit != 0 && (seen & bit) == 0) {
+                    seen |= bit;
+                    out[size++] = peer;
+                }
+            }
+            return size;
+        }
+        for (int i = lastUnit * 9, end = i + 9; i < end; i++) {
+            int cell = UNITS[i];
+            if (cell == lastCell || values[cell] != 0) continue;
+            for (int j = cell * 20, peersEnd = j + 20; j < peersEnd; j++) {
+                int peer = PEERS[j];
+                if (peer != lastCell && values[peer] == lastDigit) {
+                    if (!contains(out, size, peer)) out[size++] = peer;
+                    break;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static boolean contains(int[] cells, int size, int cell) {
+        for (int i = 0; i < size; i++) {
+            if (cells[i] == cell) return true;
+        }
+        return false;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public boolean isSolved() {
+        return emptyCount == 0;
+    }
+
+    /** Hardest technique the last grading needed, or null if it needed none. */
+    public Technique getHardestTechnique() {
+        return hardest;
+    }
+
+    public int getCount(Technique technique) {
+        return counts[technique.ordinal()];
+    }
+
+    public int getValue(int row, int col) {
+        return values[row * 9 + col];
+    }
+
+    public int getCandidates(int row, int col) {
+        return candidates[row * 9 + col];
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+
+/**
+ * The moves of a game as a growable int array, each packed like
+ * {@link GameSession} moves: row, column, value before and value after.
+ * A cursor separates the moves in effect from those that were undone and can
+ * be redone; recording a new move drops the undone ones.
+ */
+public class MoveJournal {
+    private int[] moves = new int[64];
+    private int size;
+    private int position;
+
+    /** Appends a move at the cursor, discarding any undone moves after it. */
+    public void record(int move) {
+        if (position == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[position++] = move;
+        size = position;
+    }
+
+    /** Steps the cursor back and returns the move to revert. */
+    public int undo() {
+        if (position == 0) throw new IllegalStateException("Nothing to undo");
+        return moves[--position];
+    }
+
+    /** Steps the cursor forward and returns the move to apply again. */
+    public int redo() {
+        if (position == size) throw new IllegalStateException("Nothing to redo");
+        return moves[position++];
+    }
+
+    public boolean canUndo() {
+        return position > 0;
+    }
+
+    public boolean canRedo() {
+        return position < size;
+    }
+
+    /** Moves recorded, including undone ones that can still be redone. */
+    public int size() {
+        return size;
+    }
+
+    /** Number of moves currently in effect. */
+    public int position() {
+        return position;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Move " + index);
+        return moves[index];
+    }
+
+    public void clear() {
+        size = 0;
+        position = 0;
+    }
+
+    /** Replaces the contents with the first {@code count} moves of the array. */
+    void load(int[] source, int count, int position) {
+        if (moves.length < count) {
+            moves = new int[Math.max(count, moves.length * 2)];
+        }
+        System.arraycopy(source, 0, moves, 0, count);
+        this.size = count;
+        this.position = position;
+    }
+
+    /** Copy of the recorded moves, for handing to another thread. */
+    int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.sudokumaster.model;
+
+/**
+ * A puzzle's givens together with its unique solution, which the generator
+ * has on hand anyway before it digs cells. The solution is packed one byte
+ * per cell (row * 9 + col).
+ */
+public class Puzzle {
+    private final int[][] givens;
+    private final byte[] solution;
+
+    Puzzle(int[][] givens, byte[] solution) {
+        this.givens = givens;
+        this.solution = solution;
+    }
+
+    /** Wraps givens from elsewhere, solving them; throws IllegalArgumentException if they have no solution. */
+    public static Puzzle of(int[][] givens) {
+        int[][] grid = new int[9][];
+        for (int row = 0; row < 9; row++) grid[row] = givens[row].clone();
+        if (!new SudokuSolver().solve(grid)) {
+            throw new IllegalArgumentException("Puzzle has no solution");
+        }
+        return new Puzzle(givens, pack(grid));
+    }
+
+    static byte[] pack(int[][] grid) {
+        byte[] packed = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            packed[cell] = (byte) grid[cell / 9][cell % 9];
+        }
+        return packed;
+    }
+
+    public int[][] getGivens() {
+        return givens;
+    }
+
+    public byte[] getSolution() {
+        return solution;
+    }
+
+    public int getSolution(int row, int col) {
+        return solution[row * 9 + col];
+    }
+}
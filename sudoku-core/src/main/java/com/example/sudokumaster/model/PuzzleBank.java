@@ -0,0 +1,118 @@
+package com.example.sudokumaster.model;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only bank of pre-generated puzzles, memory-mapped so looking up a
+ * puzzle touches only its own record and the file never lands on the heap.
+ *
+ * The file is a 20-byte header (magic, format, puzzle count per difficulty)
+ * followed by the easy, medium and hard records back to back. Every record
+ * is {@link #RECORD_SIZE} bytes: an 81-bit mask of the given cells, then the
+ * whole solution two digits per byte, in the same bit order as
+ * {@link PuzzleCodec}. Puzzle k of a difficulty is therefore at a fixed
+ * offset.
+ */
+public class PuzzleBank {
+    public static final int RECORD_SIZE = 52;
+    private static final int MAGIC = 0x53444B42; // "SDKB"
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int MASK_BYTES = 11;
+
+    private final ByteBuffer buffer;
+    private final int[] counts = new int[3];
+    private final int[] firstRecord = new int[3];
+
+    private PuzzleBank(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException("Not a puzzle bank");
+        }
+        // Summed as a long, so three counts cannot overflow; the size check then bounds the total
+        long records = 0;
+        for (int i = 0; i < 3; i++) {
+            counts[i] = buffer.getInt(8 + i * 4);
+            if (counts[i] < 0) throw new IOException("Bad puzzle count " + counts[i]);
+            firstRecord[i] = (int) records;
+            records += counts[i];
+        }
+        if (HEADER_SIZE + records * RECORD_SIZE > buffer.capacity()) {
+            throw new IOException("Truncated puzzle bank");
+        }
+    }
+
+    public static PuzzleBank open(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            return map(in.getChannel(), 0, in.getChannel().size());
+        }
+    }
+
+    /**
+     * Maps a bank stored at {@code offset} in the channel's file, e.g. an
+     * uncompressed asset inside an APK. The mapping stays valid after the
+     * channel is closed.
+     */
+    public static PuzzleBank map(FileChannel channel, long offset, long length) throws IOException {
+        return new PuzzleBank(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    /** Number of puzzles for difficulty 1 (easy), 2 (medium) or 3 (hard). */
+    public int size(int difficulty) {
+        return counts[index(difficulty)];
+    }
+
+    /** Decodes puzzle {@code k} of the difficulty, with its solution. */
+    public Puzzle get(int difficulty, int k) {
+        int d = index(difficulty);
+        if (k < 0 || k >= counts[d]) throw new IndexOutOfBoundsException("Puzzle " + k);
+
+        int base = HEADER_SIZE + (firstRecord[d] + k) * RECORD_SIZE;
+        int[][] givens = new int[9][9];
+        byte[] solution = new byte[81];
+        for (int cell = 0; cell < 81; cell++) {
+            int digit = buffer.get(base + MASK_BYTES + (cell >>> 1)) >>> ((cell & 1) * 4) & 0xF;
+            solution[cell] = (byte) digit;
+            if ((buffer.get(base + (cell >>> 3)) & (1 << (cell & 7))) != 0) {
+                givens[cell / 9][cell % 9] = digit;
+            }
+        }
+        return new Puzzle(givens, solution);
+    }
+
+    /** Writes the puzzle as one record at {@code offset}. */
+    public static void encode(Puzzle puzzle, byte[] out, int offset) {
+        int[][] givens = puzzle.getGivens();
+        byte[] solution = puzzle.getSolution();
+        for (int cell = 0; cell < 81; cell++) {
+            if (givens[cell / 9][cell % 9] != 0) {
+                out[offset + (cell >>> 3)] |= (byte) (1 << (cell & 7));
+            }
+            out[offset + MASK_BYTES + (cell >>> 1)] |= (byte) (solution[cell] << ((cell & 1) * 4));
+        }
+    }
+
+    /**
+     * Writes a bank file from the encoded records of each difficulty, easy
+     * first; each array holds whole records only.
+     */
+    public static void write(DataOutputStream out, byte[][] records) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        for (int i = 0; i < 3; i++) {
+            out.writeInt(records[i].length / RECORD_SIZE);
+        }
+        for (int i = 0; i < 3; i++) {
+            out.write(records[i], 0, records[i].length / RECORD_SIZE * RECORD_SIZE);
+        }
+    }
+
+    private static int index(int difficulty) {
+        return difficulty == 1 ? 0 : difficulty == 3 ? 2 : 1;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+
+/**
+ * Maps a 9x9 puzzle to a canonical form shared by every puzzle it can be
+ * turned into by a symmetry of sudoku: transposing, permuting bands and the
+ * rows within them, permuting stacks and the columns within them, and
+ * relabelling digits.
+ *
+ * The canonical form is the smallest one in two steps. First the pattern of
+ * empty cells, read row by row with an empty cell counting as 1, is
+ * minimised by a branch and bound over rows: the first row is picked among
+ * the densest rows of the grid and its transpose, together with every column
+ * order that minimises it, and each further row keeps only the branches that
+ * tie for the smallest value. Starting from dense rows pins the column order
+ * down early, so few branches survive the first rows. Puzzles with more
+ * full lines than empty ones, where that would not hold, minimise the
+ * pattern of givens instead; the choice depends only on symmetry-invariant
+ * counts, so equivalent puzzles still agree. Then, among the few arrangements left, digits are
+ * relabelled in order of first appearance and the smallest result wins.
+ * Boards with very few givens have huge numbers of equivalent arrangements
+ * and are slow to canonicalise; real puzzles leave only a handful.
+ * Instances reuse their buffers and are not thread-safe.
+ */
+public class PuzzleCanonicalizer {
+    private static final int[][] STACK_ORDERS = {
+            {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+    // Every column order that keeps stacks intact, [perm * 9 + position] = source column.
+    // Perm p puts stacks in order p / 216 and orders their columns by p / 36 % 6, p / 6 % 6 and p % 6.
+    private static final byte[] COL_PERMS = new byte[1296 * 9];
+    // Three columns of a stack in the given order, first as the highest bit, [order * 8 + bits]
+    private static final int[] ORDERED_BITS = new int[6 * 8];
+
+    static {
+        for (int o = 0; o < 6; o++) {
+            for (int bits = 0; bits < 8; bits++) {
+                int value = 0;
+                for (int i = 0; i < 3; i++) value = value << 1 | (bits >>> STACK_ORDERS[o][i] & 1);
+                ORDERED_BITS[o * 8 + bits] = value;
+            }
+        }
+        int p = 0;
+        for (int[] stacks : STACK_ORDERS) {
+            for (int a = 0; a < 6; a++) {
+                for (int b = 0; b < 6; b++) {
+                    for (int c = 0; c < 6; c++) {
+                        int[] within = {a, b, c};
+                        for (int s = 0; s < 3; s++) {
+                            int[] order = STACK_ORDERS[within[s]];
+                            for (int i = 0; i < 3; i++) {
+                                COL_PERMS[p * 9 + s * 3 + i] = (byte) (stacks[s] * 3 + order[i]);
+                            }
+                        }
+                        p++;
+                    }
+                }
+            }
+        }
+    }
+
+    // The grid and its transpose, [transposed * 81 + row * 9 + col]
+    private final byte[] cells = new byte[162];
+    // Empty cells (or givens, see canonicalize) of every row of the grid, then of its transpose
+    private final int[] rowMasks = new int[18];
+
+    // Surviving branches: transpose flag, column order and chosen source rows (4 bits each)
+    private int[] transposed = new int[256];
+    private int[] perms = new int[256];
+    private long[] rows = new long[256];
+    private int count;
+    private int[] nextTransposed = new int[256];
+    private int[] nextPerms = new int[256];
+    private long[] nextRows = new long[256];
+    private int nextCount;
+
+    private final byte[] candidate = new byte[81];
+    private final byte[] canonical = new byte[81];
+    private final int[] labels = new int[10];
+
+    /** The fingerprint of the puzzle's canonical form. */
+    public PuzzleFingerprint fingerprint(int[][] board) {
+        canonicalize(board, canonical);
+        return PuzzleFingerprint.of(canonical);
+    }
+
+    /** Writes the canonical form of the puzzle to {@code out}, row by row with 0 for empty cells. */
+    public void canonicalize(int[][] board, byte[] out) {
+        Arrays.fill(rowMasks, 0);
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int value = board[row][col];
+                cells[row * 9 + col] = (byte) value;
+                cells[81 + col * 9 + row] = (byte) value;
+                if (value == 0) {
+                    rowMasks[row] |= 1 << col;
+                    rowMasks[9 + col] |= 1 << row;
+                }
+            }
+        }
+        // A line without a set bit ties under every column order, so track whichever kind of cell leaves fewer such lines
+        int emptyLines = 0, fullLines = 0;
+        for (int mask : rowMasks) {
+            if (mask == 0) fullLines++;
+            else if (mask == 0x1FF) emptyLines++;
+        }
+        if (emptyLines < fullLines) {
+            for (int i = 0; i < 18; i++) rowMasks[i] ^= 0x1FF;
+        }
+
+        chooseFirstRow();
+        for (int level = 1; level < 9; level++) {
+            chooseRow(level);
+        }
+
+        Arrays.fill(out, Byte.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            relabel(i);
+            if (isSmaller(candidate, out)) {
+                System.arraycopy(candidate, 0, out, 0, 81);
+            }
+        }
+    }
+
+    /**
+     * A row is smallest when its stacks go from fewest to most empty cells
+     * and every stack keeps its empty cells rightmost. Only the rows reaching the
+     * smallest such value start a branch, once for every column order that
+     * lays them out that way.
+     */
+    private void chooseFirstRow() {
+        int best = Integer.MAX_VALUE;
+        for (int r = 0; r < 18; r++) {
+            best = Math.min(best, lowerBound(rowMasks[r]));
+        }
+        count = 0;
+        for (int r = 0; r < 18; r++) {
+            int mask = rowMasks[r];
+            if (lowerBound(mask) != best) continue;
+            for (int so = 0; so < 6; so++) {
+                int[] stacks = STACK_ORDERS[so];
+                int first = mask >>> stacks[0] * 3 & 7, second = mask >>> stacks[1] * 3 & 7, third = mask >>> stacks[2] * 3 & 7;
+                if (Integer.bitCount(first) > Integer.bitCount(second)
+                        || Integer.bitCount(second) > Integer.bitCount(third)) continue;
+                for (int a = 0; a < 6; a++) {
+                    if (!isRightAligned(ORDERED_BITS[a * 8 + first])) continue;
+                    for (int b = 0; b < 6; b++) {
+                        if (!isRightAligned(ORDERED_BITS[b * 8 + second])) continue;
+                        for (int c = 0; c < 6; c++) {
+                            if (isRightAligned(ORDERED_BITS[c * 8 + third])) {
+                                add(r / 9, so * 216 + a * 36 + b * 6 + c, r % 9);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isRightAligned(int bits) {
+        return (bits & (bits + 1)) == 0;
+    }
+
+    private static int lowerBound(int mask) {
+        int a = Integer.bitCount(mask & 0x7), b = Integer.bitCount(mask & 0x38), c = Integer.bitCount(mask & 0x1C0);
+        int low = Math.min(a, Math.min(b, c)), high = Math.max(a, Math.max(b, c)), mid = a + b + c - low - high;
+        return ((1 << low) - 1) << 6 | ((1 << mid) - 1) << 3 | ((1 << high) - 1);
+    }
+
+    /** The row's empty cells in the column order, first column as the highest bit. */
+    private static int permute(int mask, int perm) {
+        int[] stacks = STACK_ORDERS[perm / 216];
+        return ORDERED_BITS[perm / 36 % 6 * 8 + (mask >>> stacks[0] * 3 & 7)] << 6
+                | ORDERED_BITS[perm / 6 % 6 * 8 + (mask >>> stacks[1] * 3 & 7)] << 3
+                | ORDERED_BITS[perm % 6 * 8 + (mask >>> stacks[2] * 3 & 7)];
+    }
+
+    private void add(int transpose, int perm, long chosen) {
+        if (count == perms.length) {
+            transposed = Arrays.copyOf(transposed, count * 2);
+            perms = Arrays.copyOf(perms, count * 2);
+            rows = Arrays.copyOf(rows, count * 2);
+        }
+        transposed[count] = transpose;
+        perms[count] = perm;
+        rows[count] = chosen;
+        count++;
+    }
+
+    /** Extends every branch by one row, keeping only those that tie for the smallest row value. */
+    private void chooseRow(int level) {
+        int best = Integer.MAX_VALUE;
+        nextCount = 0;
+        for (int i = 0; i < count; i++) {
+            long chosen = rows[i];
+            int used = 0;
+            for (int k = 0; k < level; k++) used |= 1 << (int) (chosen >>> (k * 4) & 0xF);
+
+            int first, last;
+            if (level % 3 != 0) {
+                // Finish the band the previous row came from
+                first = (int) (chosen >>> ((level - 1) * 4) & 0xF) / 3 * 3;
+                last = first + 3;
+            } else {
+                first = 0;
+                last = 9;
+            }
+            for (int r = first; r < last; r++) {
+                if ((used & 1 << r) != 0) continue;
+                // Starting a band: skip bands that already have a row placed
+                if (level % 3 == 0 && (used & 7 << (r / 3 * 3)) != 0) continue;
+                int value = permute(rowMasks[transposed[i] * 9 + r], perms[i]);
+                if (value > best) continue;
+                if (value < best) {
+                    best = value;
+                    nextCount = 0;
+                }
+                addNext(transposed[i], perms[i], chosen | (long) r << (level * 4));
+            }
+        }
+
+        int[] t = transposed;
+        transposed = nextTransposed;
+        nextTransposed = t;
+        int[] p = perms;
+        perms = nextPerms;
+        nextPerms = p;
+        long[] c = rows;
+        rows = nextRows;
+        nextRows = c;
+        count = nextCount;
+    }
+
+    private void addNext(int transpose, int perm, long chosen) {
+        if (nextCount == nextPerms.length) {
+            nextTransposed = Arrays.copyOf(nextTransposed, nextCount * 2);
+            nextPerms = Arrays.copyOf(nextPerms, nextCount * 2);
+            nextRows = Arrays.copyOf(nextRows, nextCount * 2);
+        }
+        nextTransposed[nextCount] = transpose;
+        nextPerms[nextCount] = perm;
+        nextRows[nextCount] = chosen;
+        nextCount++;
+    }
+
+    private static boolean isSmaller(byte[] a, byte[] b) {
+        for (int i = 0; i < 81; i++) {
+            if (a[i] != b[i]) return a[i] < b[i];
+        }
+        return false;
+    }
+
+    /** Applies branch {@code i} and numbers the digits in order of first appearance. */
+    private void relabel(int i) {
+        Arrays.fill(labels, 0);
+        int next = 1;
+        int base = transposed[i] * 81, perm = perms[i] * 9;
+        for (int row = 0; row < 9; row++) {
+            int source = base + (int) (rows[i] >>> (row * 4) & 0xF) * 9;
+            for (int col = 0; col < 9; col++) {
+                int value = cells[source + COL_PERMS[perm + col]];
+                if (value != 0 && labels[value] == 0) labels[value] = next++;
+                candidate[row * 9 + col] = (byte) labels[value];
+            }
+        }
+    }
+}
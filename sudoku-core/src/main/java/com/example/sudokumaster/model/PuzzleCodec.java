@@ -0,0 +1,59 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Byte encoding of a 9x9 board: an 81-bit mask of filled cells (11 bytes)
+ * followed by the filled digits, two per byte. A 25-clue puzzle takes 24
+ * bytes, a full grid 52.
+ */
+public final class PuzzleCodec {
+    private static final int MASK_BYTES = 11;
+
+    private PuzzleCodec() {}
+
+    public static int encodedLength(int filledCells) {
+        return MASK_BYTES + (filledCells + 1) / 2;
+    }
+
+    public static byte[] encode(int[][] board) {
+        int filled = 0;
+        for (int cell = 0; cell < 81; cell++) {
+            if (board[cell / 9][cell % 9] != 0) filled++;
+        }
+        byte[] out = new byte[encodedLength(filled)];
+        int nibble = MASK_BYTES * 2;
+        for (int cell = 0; cell < 81; cell++) {
+            int value = board[cell / 9][cell % 9];
+            if (value == 0) continue;
+            out[cell >>> 3] |= (byte) (1 << (cell & 7));
+            out[nibble >>> 1] |= (byte) (value << ((nibble & 1) * 4));
+            nibble++;
+        }
+        return out;
+    }
+
+    public static int[][] decode(byte[] data) {
+        int[][] board = new int[9][9];
+        decode(data, 0, board);
+        return board;
+    }
+
+    /**
+     * Decodes into an existing board and returns the number of bytes read.
+     * Throws IllegalArgumentException on truncated or out-of-range data.
+     */
+    public static int decode(byte[] data, int offset, int[][] board) {
+        if (data.length - offset < MASK_BYTES) throw new IllegalArgumentException("Truncated board");
+        int nibble = (offset + MASK_BYTES) * 2;
+        for (int cell = 0; cell < 81; cell++) {
+            int value = 0;
+            if ((data[offset + (cell >>> 3)] & (1 << (cell & 7))) != 0) {
+                if (nibble >>> 1 >= data.length) throw new IllegalArgumentException("Truncated board");
+                value = data[nibble >>> 1] >>> ((nibble & 1) * 4) & 0xF;
+                if (value < 1 || value > 9) throw new IllegalArgumentException("Bad digit " + value);
+                nibble++;
+            }
+            board[cell / 9][cell % 9] = value;
+        }
+        return (nibble + 1) / 2 - offset;
+    }
+}
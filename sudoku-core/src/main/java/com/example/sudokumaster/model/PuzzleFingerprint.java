@@ -0,0 +1,79 @@
+package com.example.sudokumaster.model;
+
+/**
+ * 128-bit hash of a puzzle's canonical form (see {@link PuzzleCanonicalizer}),
+ * so two puzzles that differ only by a symmetry of the grid share a
+ * fingerprint. Ordered by its two halves as unsigned numbers.
+ */
+public final class PuzzleFingerprint implements Comparable<PuzzleFingerprint> {
+    private static final long SEED_HIGH = 0x243F6A8885A308D3L;
+    private static final long SEED_LOW = 0x13198A2E03707344L;
+
+    private final long high;
+    private final long low;
+
+    public PuzzleFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /** Hashes 81 canonical cells, 0 for empty, packed as nibbles into six words. */
+    static PuzzleFingerprint of(byte[] canonical) {
+        long high = SEED_HIGH, low = SEED_LOW;
+        for (int start = 0; start < 81; start += 16) {
+            long word = 0;
+            for (int i = start, end = Math.min(start + 16, 81); i < end; i++) {
+                word = word << 4 | canonical[i];
+            }
+            high = mix(high, word);
+            low = mix(low, Long.rotateLeft(word, 31));
+        }
+        return new PuzzleFingerprint(finish(high), finish(low));
+    }
+
+    private static long mix(long hash, long word) {
+        hash ^= finish(word + 0x9E3779B97F4A7C15L);
+        return Long.rotateLeft(hash, 27) * 0x9E3779B97F4A7C15L + 0x52DCE729L;
+    }
+
+    // The 64-bit finaliser of MurmurHash3
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public int compareTo(PuzzleFingerprint other) {
+        int result = Long.compareUnsigned(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PuzzleFingerprint)) return false;
+        PuzzleFingerprint other = (PuzzleFingerprint) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ low >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
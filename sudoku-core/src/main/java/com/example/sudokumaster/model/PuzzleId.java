@@ -0,0 +1,91 @@
+package com.example.sudokumaster.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compact identifier of a generated puzzle: generator version, difficulty
+ * and seed packed into one long (4, 2 and 48 bits), written as an
+ * 11-character base-32 string. {@link SudokuGenerator#generate(PuzzleId)}
+ * turns an id back into its puzzle, so puzzles can be shared and replayed
+ * without storing their cells.
+ */
+public final class PuzzleId {
+    public static final long SEED_MASK = (1L << 48) - 1;
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int TEXT_LENGTH = 11;
+    // 11 characters carry 55 bits, one more than the packed id uses
+    private static final int PACKED_BITS = 54;
+
+    private final int version;
+    private final int difficulty;
+    private final long seed;
+
+    public PuzzleId(int version, int difficulty, long seed) {
+        if (version < 0 || version > 15) throw new IllegalArgumentException("Bad version " + version);
+        if (difficulty < 1 || difficulty > 3) throw new IllegalArgumentException("Bad difficulty " + difficulty);
+        if ((seed & ~SEED_MASK) != 0) throw new IllegalArgumentException("Seed does not fit 48 bits: " + seed);
+        this.version = version;
+        this.difficulty = difficulty;
+        this.seed = seed;
+    }
+
+    /** A fresh id for the current generator version with a random 48-bit seed. */
+    public static PuzzleId random(int difficulty, SplittableRandom random) {
+        int level = difficulty == 1 || difficulty == 3 ? difficulty : 2;
+        return new PuzzleId(SudokuGenerator.VERSION, level, random.nextLong() & SEED_MASK);
+    }
+
+    public static PuzzleId fromLong(long packed) {
+        return new PuzzleId((int) (packed >>> 50) & 0xF, (int) (packed >>> 48) & 0x3, packed & SEED_MASK);
+    }
+
+    public long toLong() {
+        return (long) version << 50 | (long) difficulty << 48 | seed;
+    }
+
+    /**
+     * Parses the text form, ignoring case and treating O/I/L as 0/1/1. Text
+     * with the unused top bit set is rejected, so every id has one spelling
+     * up to those aliases.
+     */
+    public static PuzzleId parse(String text) {
+        if (text.length() != TEXT_LENGTH) throw new IllegalArgumentException("Bad puzzle id " + text);
+        long packed = 0;
+        for (int i = 0; i < TEXT_LENGTH; i++) {
+            char c = Character.toUpperCase(text.charAt(i));
+            if (c == 'O') c = '0';
+            else if (c == 'I' || c == 'L') c = '1';
+            int digit = ALPHABET.indexOf(c);
+            if (digit < 0) throw new IllegalArgumentException("Bad puzzle id " + text);
+            packed = packed << 5 | digit;
+        }
+        if (packed >>> PACKED_BITS != 0) throw new IllegalArgumentException("Bad puzzle id " + text);
+        return fromLong(packed);
+    }
+
+    @Override
+    public String toString() {
+        char[] text = new char[TEXT_LENGTH];
+        long packed = toLong();
+        for (int i = TEXT_LENGTH - 1; i >= 0; i--) {
+            text[i] = ALPHABET.charAt((int) (packed & 31));
+            packed >>>= 5;
+        }
+        return new String(text);
+    }
+
+    public int getVersion() { return version; }
+    public int getDifficulty() { return difficulty; }
+    public long getSeed() { return seed; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PuzzleId && ((PuzzleId) o).toLong() == toLong();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(toLong());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.sudokumaster.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a few ready puzzles per difficulty so starting a game does not have
+ * to wait for the generator. Queues are refilled on a single background
+ * thread whenever they drop below {@link #LOW_WATER_MARK}.
+ */
+public class PuzzlePool {
+    public static final int CAPACITY = 4;
+    public static final int LOW_WATER_MARK = 2;
+    public static final long DEFAULT_TIMEOUT_MS = 20;
+    // Share of solution grids derived by GridTransformer instead of solved afresh
+    static final double TRANSFORMED_SHARE = 0.75;
+
+    private static PuzzlePool instance;
+
+    private final List<ArrayBlockingQueue<Puzzle>> queues = new ArrayList<>(3);
+    private final AtomicBoolean[] refilling = new AtomicBoolean[3];
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final ExecutorService executor;
+    // Only touched from the executor thread
+    private final SudokuGenerator backgroundGenerator = newGenerator();
+    // Used by callers when the pool cannot deliver in time
+    private final SudokuGenerator fallbackGenerator = newGenerator();
+
+    // Pooled puzzles carry no id, so they are free to use transformed grids
+    private static SudokuGenerator newGenerator() {
+        return new SudokuGenerator(SudokuGenerator.DEFAULT_TIME_BUDGET_MS, TRANSFORMED_SHARE);
+    }
+
+    public static synchronized PuzzlePool getInstance() {
+        if (instance == null) {
+            instance = new PuzzlePool();
+        }
+        return instance;
+    }
+
+    /** Has both generators skip puzzles already in the index; queued puzzles are not rechecked. */
+    public void setSeenIndex(SeenIndex seenIndex) {
+        backgroundGenerator.setSeenIndex(seenIndex);
+        fallbackGenerator.setSeenIndex(seenIndex);
+    }
+
+    /**
+     * Runs a task on the pool's background thread, after any refills already
+     * queued; tasks run one at a time in the order they were given.
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    PuzzlePool() {
+        for (int i = 0; i < 3; i++) {
+            queues.add(new ArrayBlockingQueue<>(CAPACITY));
+            refilling[i] = new AtomicBoolean();
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /** Starts filling every difficulty so the first game is already a hit. */
+    public void prefill() {
+        for (int difficulty = 1; difficulty <= 3; difficulty++) {
+            scheduleRefill(difficulty);
+        }
+    }
+
+    public void prefill(int difficulty) {
+        scheduleRefill(difficulty);
+    }
+
+    public Puzzle take(int difficulty) {
+        return take(difficulty, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * Returns a ready puzzle, waiting up to {@code timeoutMillis} for a refill
+     * in progress before generating one on the calling thread.
+     */
+    public Puzzle take(int difficulty, long timeoutMillis) {
+        ArrayBlockingQueue<Puzzle> queue = queues.get(index(difficulty));
+        Puzzle puzzle = queue.poll();
+        scheduleRefill(difficulty);
+        if (puzzle != null) {
+            hits.incrementAndGet();
+            return puzzle;
+        }
+
+        misses.incrementAndGet();
+        try {
+            puzzle = queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (puzzle != null) return puzzle;
+
+        synchronized (fallbackGenerator) {
+            return fallbackGenerator.generate(difficulty);
+        }
+    }
+
+    private void scheduleRefill(int difficulty) {
+        int index = index(difficulty);
+        ArrayBlockingQueue<Puzzle> queue = queues.get(index);
+        if (queue.size() >= LOW_WATER_MARK || !refilling[index].compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                while (queue.remainingCapacity() > 0) {
+                    queue.offer(backgroundGenerator.generate(difficulty));
+                }
+            } finally {
+                refilling[index].set(false);
+            }
+        });
+    }
+
+    private static int index(int difficulty) {
+        return difficulty == 1 ? 0 : difficulty == 3 ? 2 : 1;
+    }
+
+    public int size(int difficulty) {
+        return queues.get(index(difficulty)).size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+}
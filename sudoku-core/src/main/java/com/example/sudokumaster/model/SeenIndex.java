@@ -0,0 +1,201 @@
+package com.example.sudokumaster.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fingerprints of the puzzles a player has already been given, so new ones
+ * can be rejected when they only repeat an old puzzle up to symmetry.
+ *
+ * Lookups go to a Bloom filter first, which answers most of them (every
+ * puzzle not seen before) without touching the exact set. The exact set is a
+ * sorted array of fingerprints, searched only when the filter reports a
+ * possible hit and stored as-is in the file, from which the filter is
+ * rebuilt on load. Writes happen on a background thread, coalesced and
+ * replacing the file atomically like {@link SnapshotStore}. Thread-safe.
+ */
+public class SeenIndex {
+    private static final int MAGIC = 0x53454E58; // "SENX"
+    private static final int FORMAT = 1;
+    // Magic, format and count, then two longs per fingerprint
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 16;
+    private static final int HASHES = 7;
+    // Filter bits per expected fingerprint, about 1% false positives at 7 hashes
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final File file;
+    private final File tempFile;
+    private final ExecutorService executor;
+    private final AtomicBoolean writePending = new AtomicBoolean();
+
+    private long[] high = new long[MIN_CAPACITY];
+    private long[] low = new long[MIN_CAPACITY];
+    private int size;
+    private long[] filter;
+    private int filterMask;
+
+    public SeenIndex(File file) {
+        this.file = file;
+        this.tempFile = new File(file.getPath() + ".tmp");
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seen-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        buildFilter(MIN_CAPACITY);
+    }
+
+    /**
+     * Reads the saved fingerprints, keeping the index empty if the file is
+     * missing, unreadable or not exactly as long as its count says. Call
+     * before the first {@link #add}; it reads the file, so not on the main
+     * thread.
+     */
+    public synchronized void load() {
+        if (!file.exists()) return;
+        long length = file.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) return;
+            int count = in.readInt();
+            if (count < 0 || length != HEADER_SIZE + (long) count * ENTRY_SIZE) return;
+            long[] loadedHigh = new long[Math.max(MIN_CAPACITY, count)];
+            long[] loadedLow = new long[loadedHigh.length];
+            for (int i = 0; i < count; i++) {
+                loadedHigh[i] = in.readLong();
+                loadedLow[i] = in.readLong();
+            }
+            high = loadedHigh;
+            low = loadedLow;
+            size = count;
+        } catch (IOException e) {
+            return;
+        }
+        buildFilter(high.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(PuzzleFingerprint fingerprint) {
+        return mightContain(fingerprint) && indexOf(fingerprint) >= 0;
+    }
+
+    /** Records the fingerprint and schedules a save; returns false if it was already there. */
+    public synchronized boolean add(PuzzleFingerprint fingerprint) {
+        int index = mightContain(fingerprint) ? indexOf(fingerprint) : -1 - insertionPoint(fingerprint);
+        if (index >= 0) return false;
+
+        int at = -1 - index;
+        if (size == high.length) {
+            high = Arrays.copyOf(high, size * 2);
+            low = Arrays.copyOf(low, size * 2);
+            buildFilter(high.length);
+        }
+        System.arraycopy(high, at, high, at + 1, size - at);
+        System.arraycopy(low, at, low, at + 1, size - at);
+        high[at] = fingerprint.getHigh();
+        low[at] = fingerprint.getLow();
+        size++;
+        setBits(fingerprint);
+
+        if (writePending.compareAndSet(false, true)) {
+            executor.execute(this::write);
+        }
+        return true;
+    }
+
+    private void buildFilter(int capacity) {
+        int bits = Integer.highestOneBit(capacity * BITS_PER_ENTRY - 1) << 1;
+        filter = new long[bits >>> 6];
+        filterMask = bits - 1;
+        for (int i = 0; i < size; i++) {
+            setBits(high[i], low[i]);
+        }
+    }
+
+    private void setBits(PuzzleFingerprint fingerprint) {
+        setBits(fingerprint.getHigh(), fingerprint.getLow());
+    }
+
+    // Double hashing: the two halves of the fingerprint are already independent hashes
+    private void setBits(long h1, long h2) {
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) (h1 + i * h2) & filterMask;
+            filter[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(PuzzleFingerprint fingerprint) {
+        long h1 = fingerprint.getHigh(), h2 = fingerprint.getLow();
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) (h1 + i * h2) & filterMask;
+            if ((filter[bit >>> 6] & 1L << bit) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Position of the fingerprint, or -(insertion point) - 1 like {@link Arrays#binarySearch}. */
+    private int indexOf(PuzzleFingerprint fingerprint) {
+        int at = insertionPoint(fingerprint);
+        if (at < size && high[at] == fingerprint.getHigh() && low[at] == fingerprint.getLow()) return at;
+        return -1 - at;
+    }
+
+    private int insertionPoint(PuzzleFingerprint fingerprint) {
+        long h = fingerprint.getHigh(), l = fingerprint.getLow();
+        int from = 0, to = size;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            int order = Long.compareUnsigned(high[mid], h);
+            if (order == 0) order = Long.compareUnsigned(low[mid], l);
+            if (order < 0) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    private void write() {
+        writePending.set(false);
+        long[] savedHigh, savedLow;
+        int count;
+        synchronized (this) {
+            count = size;
+            savedHigh = Arrays.copyOf(high, count);
+            savedLow = Arrays.copyOf(low, count);
+        }
+        try {
+            FileOutputStream stream = new FileOutputStream(tempFile);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(count);
+                for (int i = 0; i < count; i++) {
+                    out.writeLong(savedHigh[i]);
+                    out.writeLong(savedLow[i]);
+                }
+                out.flush();
+                stream.getFD().sync();
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        } catch (IOException e) {
+            // Keep the last good file; the next add will try again
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.sudokumaster.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Saves game snapshots to a file on a background thread. Saves requested
+ * while a write is pending are coalesced so only the newest snapshot is
+ * written. Every write goes to a temporary file that is synced and then
+ * renamed over the real one, so a crash mid-save leaves the previous
+ * snapshot intact.
+ *
+ * The move journal lives in a second file of raw ints. The writer remembers
+ * what it last wrote there and only rewrites from the first move that
+ * changed, which for normal play is just the moves appended since the last
+ * save. If the two files disagree after a crash, {@link GameSession#restore}
+ * drops the history rather than replaying a mismatched one.
+ *
+ * Every read and write of the files runs on the store's single thread, so
+ * keep one store per file for the whole process; two stores would each
+ * cache a different idea of the journal and interleave their writes.
+ */
+public class SnapshotStore {
+    private final File file;
+    private final File tempFile;
+    private final File journalFile;
+    private final ExecutorService executor;
+    private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+
+    // Moves currently in the journal file; only touched on the executor
+    private int[] written = new int[0];
+    private int writtenCount;
+
+    public SnapshotStore(File file) {
+        this.file = file;
+        this.tempFile = new File(file.getPath() + ".tmp");
+        this.journalFile = new File(file.getPath() + ".moves");
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Queues the snapshot for writing and returns immediately. */
+    public void save(GameSnapshot snapshot) {
+        if (pending.getAndSet(snapshot) == null) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    /** Drops the saved game, after any save queued before it. */
+    public void clear() {
+        pending.set(null);
+        executor.execute(() -> {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            //noinspection ResultOfMethodCallIgnored
+            journalFile.delete();
+            writtenCount = 0;
+        });
+    }
+
+    /**
+     * Reads the saved game, or returns null if there is none or it cannot be
+     * read. Blocks until the saves queued before it were written.
+     */
+    public GameSnapshot load() {
+        try {
+            return executor.submit(this::read).get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private GameSnapshot read() {
+        if (!file.exists()) return null;
+        GameSnapshot snapshot;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            snapshot = GameSnapshot.readFrom(in);
+        } catch (IOException e) {
+            return null;
+        }
+        int[] moves = readJournal(snapshot.moveCount);
+        written = moves;
+        writtenCount = moves.length;
+        return snapshot.withMoves(moves);
+    }
+
+    private int[] readJournal(int count) {
+        try (FileInputStream in = new FileInputStream(journalFile)) {
+            FileChannel channel = in.getChannel();
+            int available = (int) Math.min(count, channel.size() / 4);
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, available * 4L).asIntBuffer();
+            int[] moves = new int[available];
+            ints.get(moves);
+            return moves;
+        } catch (IOException e) {
+            return new int[0];
+        }
+    }
+
+    private void writePending() {
+        GameSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) return;
+        try {
+            writeJournal(snapshot.moves, snapshot.moveCount);
+        } catch (IOException e) {
+            // The snapshot below still holds the board; a stale journal is dropped on restore
+            writtenCount = -1;
+        }
+        try {
+            FileOutputStream stream = new FileOutputStream(tempFile);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                snapshot.writeTo(out);
+                out.flush();
+                stream.getFD().sync();
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        } catch (IOException e) {
+            // Keep the last good snapshot; the next save will try again
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+        }
+    }
+
+    private void writeJournal(int[] moves, int count) throws IOException {
+        int from = 0;
+        int common = Math.min(count, writtenCount);
+        while (from < common && written[from] == moves[from]) from++;
+        if (from == count && count == writtenCount) return;
+
+        try (RandomAccessFile out = new RandomAccessFile(journalFile, "rw")) {
+            if (writtenCount < 0 || out.length() != writtenCount * 4L) from = 0;
+            ByteBuffer buffer = ByteBuffer.allocate((count - from) * 4);
+            buffer.asIntBuffer().put(moves, from, count - from);
+            out.seek(from * 4L);
+            out.write(buffer.array());
+            out.setLength(count * 4L);
+            out.getFD().sync();
+        }
+        if (written.length < count) written = Arrays.copyOf(written, Math.max(count, written.length * 2));
+        System.arraycopy(moves, from, written, from, count - from);
+        writtenCount = count;
+    }
+}
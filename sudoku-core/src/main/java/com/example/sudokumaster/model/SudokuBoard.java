@@ -0,0 +1,271 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+
+/**
+ * Packed 9x9 board: one byte per cell, a 128-bit mask of fixed cells, per
+ * row/column/box digit counters with matching 9-bit masks, and the number of
+ * empty cells. Everything is updated on every {@link #setValue} so move
+ * checks, candidate queries and completion are constant time. Loading a new
+ * puzzle reuses the same arrays.
+ *
+ * Empty cells are also kept as a 128-bit set, and bucketed by how many
+ * candidates they have, with the counts refreshed for the changed cell and
+ * its 20 peers on every {@link #setValue}. Finding the next empty cell or
+ * the most constrained one is then a few bit operations.
+ *
+ * Each cell also has a 9-bit mask of the player's pencil marks. Notes are
+ * independent of the value: a filled cell keeps its notes, they just are not
+ * shown until the cell is cleared again.
+ */
+public class SudokuBoard {
+    public static final int SIZE = 9;
+    public static final int CELLS = 81;
+    private static final long ALL_HI = (1L << (CELLS - 64)) - 1;
+    private static final int[] PEERS = Units.PEERS;
+
+    private final byte[] values = new byte[CELLS];
+    private long fixedLo, fixedHi;
+    private final short[] rowMask = new short[SIZE];
+    private final short[] colMask = new short[SIZE];
+    private final short[] boxMask = new short[SIZE];
+    // How many times each digit appears per unit, indexed [unit * 9 + digit - 1]
+    private final byte[] rowCount = new byte[SIZE * SIZE];
+    private final byte[] colCount = new byte[SIZE * SIZE];
+    private final byte[] boxCount = new byte[SIZE * SIZE];
+    private int emptyCount = CELLS;
+    private long emptyLo = -1L, emptyHi = ALL_HI;
+    // Candidates per empty cell, and the empty cells with each count as 128-bit sets
+    private final byte[] candidateCount = new byte[CELLS];
+    private final long[] countLo = new long[SIZE + 1];
+    private final long[] countHi = new long[SIZE + 1];
+    private final short[] notes = new short[CELLS];
+
+    public static int boxOf(int row, int col) {
+        return (row / 3) * 3 + col / 3;
+    }
+
+    /** Loads a generated board; every non-zero value becomes a fixed cell. */
+    public void load(int[][] board) {
+        Arrays.fill(values, (byte) 0);
+        Arrays.fill(rowMask, (short) 0);
+        Arrays.fill(colMask, (short) 0);
+        Arrays.fill(boxMask, (short) 0);
+        Arrays.fill(rowCount, (byte) 0);
+        Arrays.fill(colCount, (byte) 0);
+        Arrays.fill(boxCount, (byte) 0);
+        Arrays.fill(notes, (short) 0);
+        emptyCount = CELLS;
+        emptyLo = -1L;
+        emptyHi = ALL_HI;
+        Arrays.fill(candidateCount, (byte) SIZE);
+        Arrays.fill(countLo, 0);
+        Arrays.fill(countHi, 0);
+        countLo[SIZE] = -1L;
+        countHi[SIZE] = ALL_HI;
+        fixedLo = 0;
+        fixedHi = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int value = board[row][col];
+                if (value != 0) {
+                    setFixed(row * SIZE + col);
+                    setValue(row, col, value);
+                }
+            }
+        }
+    }
+
+    private void setFixed(int index) {
+        if (index < 64) {
+            fixedLo |= 1L << index;
+        } else {
+            fixedHi |= 1L << (index - 64);
+        }
+    }
+
+    public boolean isFixed(int row, int col) {
+        int index = row * SIZE + col;
+        return index < 64
+                ? (fixedLo & (1L << index)) != 0
+                : (fixedHi & (1L << (index - 64))) != 0;
+    }
+
+    public int getValue(int row, int col) {
+        return values[row * SIZE + col];
+    }
+
+    public void setValue(int row, int col, int value) {
+        int index = row * SIZE + col;
+        int old = values[index];
+        if (old == value) return;
+        int box = boxOf(row, col);
+        if (old != 0) {
+            int clear = ~(1 << (old - 1));
+            if (--rowCount[row * SIZE + old - 1] == 0) rowMask[row] &= clear;
+            if (--colCount[col * SIZE + old - 1] == 0) colMask[col] &= clear;
+            if (--boxCount[box * SIZE + old - 1] == 0) boxMask[box] &= clear;
+            emptyCount++;
+        }
+        if (value != 0) {
+            int bit = 1 << (value - 1);
+            rowCount[row * SIZE + value - 1]++;
+            colCount[col * SIZE + value - 1]++;
+            boxCount[box * SIZE + value - 1]++;
+            rowMask[row] |= bit;
+            colMask[col] |= bit;
+            boxMask[box] |= bit;
+            emptyCount--;
+        }
+        values[index] = (byte) value;
+
+        if (old == 0) {
+            flip(index);
+            flipCount(candidateCount[index], index);
+        } else if (value == 0) {
+            flip(index);
+            candidateCount[index] = 0;
+            flipCount(0, index);
+        }
+        updateCount(index);
+        for (int i = index * 20, end = i + 20; i < end; i++) {
+            updateCount(PEERS[i]);
+        }
+    }
+
+    private void flip(int index) {
+        if (index < 64) emptyLo ^= 1L << index;
+        else emptyHi ^= 1L << (index - 64);
+    }
+
+    private void flipCount(int count, int index) {
+        if (index < 64) countLo[count] ^= 1L << index;
+        else countHi[count] ^= 1L << (index - 64);
+    }
+
+    /** Moves an empty cell to the bucket of its current candidate count. */
+    private void updateCount(int index) {
+        if (values[index] != 0) return;
+        int count = Integer.bitCount(~getUsedMask(index / SIZE, index % SIZE) & 0x1FF);
+        int old = candidateCount[index];
+        if (count == old) return;
+        flipCount(old, index);
+        flipCount(count, index);
+        candidateCount[index] = (byte) count;
+    }
+
+    /** Pencil marks of the cell as a 9-bit mask (bit 0 is digit 1). */
+    public int getNotes(int row, int col) {
+        return notes[row * SIZE + col];
+    }
+
+    public void setNotes(int row, int col, int mask) {
+        notes[row * SIZE + col] = (short) (mask & 0x1FF);
+    }
+
+    int getNotes(int index) {
+        return notes[index];
+    }
+
+    /** Toggles the given note bits of the cell at {@code index} (row * 9 + col). */
+    void flipNotes(int index, int mask) {
+        notes[index] ^= mask;
+    }
+
+    public void clearNotes() {
+        Arrays.fill(notes, (short) 0);
+    }
+
+    /** Digits already used by the row, column and box of the cell, including its own. */
+    public int getUsedMask(int row, int col) {
+        return rowMask[row] | colMask[col] | boxMask[boxOf(row, col)];
+    }
+
+    /**
+     * Digits that could go in the cell without clashing with any other cell
+     * in its row, column or box, as a 9-bit mask (bit 0 is digit 1). The
+     * cell's own value counts as a candidate unless it is duplicated.
+     */
+    public int getCandidateMask(int row, int col) {
+        int mask = ~getUsedMask(row, col) & 0x1FF;
+        int value = values[row * SIZE + col];
+        if (value != 0
+                && rowCount[row * SIZE + value - 1] == 1
+                && colCount[col * SIZE + value - 1] == 1
+                && boxCount[boxOf(row, col) * SIZE + value - 1] == 1) {
+            mask |= 1 << (value - 1);
+        }
+        return mask;
+    }
+
+    /** True when no other cell in the row, column or box holds {@code num}. */
+    public boolean isMoveValid(int row, int col, int num) {
+        return (getCandidateMask(row, col) & (1 << (num - 1))) != 0;
+    }
+
+    /** Number of candidates of an empty cell; meaningless for a filled one. */
+    public int getCandidateCount(int row, int col) {
+        return candidateCount[row * SIZE + col];
+    }
+
+    /**
+     * First empty cell after {@code index} (row * 9 + col) in reading order,
+     * wrapping around to the top, or -1 when the board is full. Pass -1 to
+     * search from the first cell.
+     */
+    public int nextEmpty(int index) {
+        return firstAfter(emptyLo, emptyHi, index);
+    }
+
+    /**
+     * Last empty cell before {@code index} in reading order, wrapping around
+     * to the bottom, or -1 when the board is full. Pass {@link #CELLS} to
+     * search from the last cell.
+     */
+    public int previousEmpty(int index) {
+        return lastBefore(emptyLo, emptyHi, index);
+    }
+
+    /**
+     * The empty cell with the fewest candidates, or -1 when the board is
+     * full. Ties go to the first such cell after {@code index} in reading
+     * order, so repeated calls cycle through equally constrained cells.
+     */
+    public int mostConstrainedEmpty(int index) {
+        for (int count = 0; count <= SIZE; count++) {
+            if ((countLo[count] | countHi[count]) != 0) {
+                return firstAfter(countLo[count], countHi[count], index);
+            }
+        }
+        return -1;
+    }
+
+    private static int firstAfter(long lo, long hi, int index) {
+        int from = index + 1;
+        long after = from < 64 ? lo & (-1L << from) : 0;
+        if (after != 0) return Long.numberOfTrailingZeros(after);
+        after = from <= 64 ? hi : from < CELLS ? hi & (-1L << (from - 64)) : 0;
+        if (after != 0) return 64 + Long.numberOfTrailingZeros(after);
+        if (lo != 0) return Long.numberOfTrailingZeros(lo);
+        if (hi != 0) return 64 + Long.numberOfTrailingZeros(hi);
+        return -1;
+    }
+
+    private static int lastBefore(long lo, long hi, int index) {
+        long before = index > 64 ? hi & ((1L << (index - 64)) - 1) : 0;
+        if (before != 0) return 127 - Long.numberOfLeadingZeros(before);
+        before = index >= 64 ? lo : index > 0 ? lo & ((1L << index) - 1) : 0;
+        if (before != 0) return 63 - Long.numberOfLeadingZeros(before);
+        if (hi != 0) return 127 - Long.numberOfLeadingZeros(hi);
+        if (lo != 0) return 63 - Long.numberOfLeadingZeros(lo);
+        return -1;
+    }
+
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    public boolean isFull() {
+        return emptyCount == 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Read-only view of one cell of a {@link SudokuBoard}. The cells are created
+ * once per model and keep reflecting the board as it changes.
+ */
+public class SudokuCell {
+    private final SudokuBoard board;
+    private final int row, col;
+
+    SudokuCell(SudokuBoard board, int row, int col) {
+        this.board = board;
+        this.row = row;
+        this.col = col;
+    }
+
+    public int getValue() {
+        return board.getValue(row, col);
+    }
+
+    public boolean isFixed() {
+        return board.isFixed(row, col);
+    }
+
+    /** Pencil marks as a 9-bit mask (bit 0 is digit 1). */
+    public int getNotes() {
+        return board.getNotes(row, col);
+    }
+}
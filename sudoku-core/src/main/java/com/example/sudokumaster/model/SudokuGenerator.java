@@ -0,0 +1,366 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Builds unique-solution puzzles whose {@link LogicalSolver} rating falls in
+ * the band of the requested difficulty. Each {@link Puzzle} carries the
+ * solution grid the cells were dug from.
+ */
+public class SudokuGenerator {
+    public static final long DEFAULT_TIME_BUDGET_MS = 250;
+    /** Pass as the time budget to never stop early, e.g. for offline batches. */
+    public static final long NO_TIME_BUDGET = 0;
+    /** Bumped whenever a change would make a seed produce a different puzzle. */
+    public static final int VERSION = 1;
+    // Cap on fresh grids for seeded generation, which ignores the time budget
+    private static final int MAX_ATTEMPTS = 64;
+    // Cells dug before the time budget may stop digging, so a late puzzle is never close to the full grid
+    static final int MIN_DUG_CELLS = 30;
+
+    // Rating bands per difficulty (easy, medium, hard), inclusive
+    private static final int[] MIN_RATING = {30, 50, 90};
+    private static final int[] MAX_RATING = {45, 80, 400};
+
+    private final SplittableRandom random = new SplittableRandom();
+    private final SudokuSolver solver = new SudokuSolver();
+    private final LogicalSolver grader = new LogicalSolver();
+    private final GridTransformer transformer = new GridTransformer();
+    private final PuzzleCanonicalizer canonicalizer = new PuzzleCanonicalizer();
+    // Built on first use for each board size
+    private DlxSolver dlx;
+    private final long timeBudgetNanos;
+    private final double transformedShare;
+    private volatile SeenIndex seenIndex;
+
+    private long startNanos;
+    private long deadlineNanos;
+    private boolean timed;
+    private int lastCountCalls;
+    private int lastGradeCalls;
+    private int lastAttempts;
+    private int lastTransformedGrids;
+    private int lastRepeats;
+    private int lastRating;
+    private int lastRemovedCells;
+    private long lastGenerationNanos;
+    private boolean lastBudgetExceeded;
+    private long totalCountCalls;
+
+    public SudokuGenerator() {
+        this(DEFAULT_TIME_BUDGET_MS);
+    }
+
+    /**
+     * @param timeBudgetMillis upper bound on the time spent digging cells for
+     *                         one puzzle, or {@link #NO_TIME_BUDGET}; the
+     *                         puzzle stays unique either way
+     */
+    public SudokuGenerator(long timeBudgetMillis) {
+        this(timeBudgetMillis, 0);
+    }
+
+    /**
+     * @param transformedShare fraction, from 0 to 1, of solution grids that
+     *                         {@link #generate(int)} derives from earlier
+     *                         grids with a {@link GridTransformer} instead of
+     *                         solving a new one; the rest are solved from
+     *                         scratch and join the transformer's library
+     */
+    public SudokuGenerator(long timeBudgetMillis, double transformedShare) {
+        this.timeBudgetNanos = timeBudgetMillis <= NO_TIME_BUDGET ? Long.MAX_VALUE : timeBudgetMillis * 1_000_000L;
+        this.transformedShare = transformedShare;
+    }
+
+    /**
+     * Makes {@link #generate(int)} start over whenever a puzzle is in the
+     * index, i.e. is the same as one already played up to symmetry. Pass
+     * null to stop checking. Seeded generation never consults the index.
+     */
+    public void setSeenIndex(SeenIndex seenIndex) {
+        this.seenIndex = seenIndex;
+    }
+
+    /**
+     * Generates a puzzle for difficulty 1 (easy), 2 (medium) or 3 (hard); any
+     * other value is treated as medium. Starts over from a new solution grid
+     * whenever digging cannot reach the rating band or the puzzle was seen
+     * before, until the time budget runs out. No attempt starts after that;
+     * the best puzzle dug so far is returned instead: one not seen before if
+     * possible, then the highest rated, then the one with the fewest givens.
+     */
+    public Puzzle generate(int difficulty) {
+        return generate(difficulty, random, timeBudgetNanos != Long.MAX_VALUE, transformedShare, seenIndex);
+    }
+
+    /**
+     * Deterministic generation: the same difficulty and seed always give the
+     * same puzzle for a given {@link #VERSION}, on any device and at any
+     * speed, because neither the time budget nor grid transforms are applied.
+     */
+    public Puzzle generate(int difficulty, long seed) {
+        return generate(difficulty, new SplittableRandom(seed), false, 0, null);
+    }
+
+    /** Regenerates the puzzle an id was issued for. */
+    public Puzzle generate(PuzzleId id) {
+        if (id.getVersion() != VERSION) {
+            throw new IllegalArgumentException("Puzzle " + id + " was made by generator version "
+                    + id.getVersion() + ", this is version " + VERSION);
+        }
+        return generate(id.getDifficulty(), id.getSeed());
+    }
+
+    /**
+     * Same as {@link #generate(int, long)} but draws every random choice from
+     * the given stream, so the same stream state always yields the same puzzle.
+     */
+    public Puzzle generate(int difficulty, SplittableRandom random) {
+        return generate(difficulty, random, false, 0, null);
+    }
+
+    private Puzzle generate(int difficulty, SplittableRandom random, boolean timed, double transformedShare,
+                            SeenIndex seen) {
+        int[][] board = new int[9][9];
+        byte[] solution = null;
+        startNanos = System.nanoTime();
+        deadlineNanos = startNanos + timeBudgetNanos;
+        this.timed = timed;
+        lastCountCalls = 0;
+        lastGradeCalls = 0;
+        lastAttempts = 0;
+        lastTransformedGrids = 0;
+        lastRepeats = 0;
+        lastBudgetExceeded = false;
+
+        int band = difficulty == 1 ? 0 : difficulty == 3 ? 2 : 1;
+        // Timed runs keep their best attempt; seeded ones return the last, so seeds keep their puzzles
+        int[][] best = timed ? new int[9][9] : null;
+        byte[] bestSolution = null;
+        int bestRating = -1, bestRemoved = -1;
+        boolean bestRepeat = true;
+        boolean repeat;
+        do {
+            if (timed && lastAttempts > 0 && System.nanoTime() - deadlineNanos > 0) {
+                lastBudgetExceeded = true;
+                break;
+            }
+            if (transformedShare > 0 && random.nextDouble() < transformedShare) {
+                transformer.next(board, random);
+                lastTransformedGrids++;
+            } else {
+                for (int[] row : board) Arrays.fill(row, 0);
+                fillDiagonal(board, random);
+                solve(board);
+                if (transformedShare > 0) transformer.add(board);
+            }
+            solution = Puzzle.pack(board);
+            lastRating = removeCells(board, MIN_RATING[band], MAX_RATING[band], random);
+            lastAttempts++;
+            repeat = seen != null && lastRating >= MIN_RATING[band]
+                    && seen.contains(canonicalizer.fingerprint(board));
+            if (repeat) lastRepeats++;
+            if (timed && isBetter(repeat, lastRating, lastRemovedCells, bestRepeat, bestRating, bestRemoved)) {
+                for (int row = 0; row < 9; row++) System.arraycopy(board[row], 0, best[row], 0, 9);
+                bestSolution = solution;
+                bestRating = lastRating;
+                bestRemoved = lastRemovedCells;
+                bestRepeat = repeat;
+            }
+        } while ((lastRating < MIN_RATING[band] || repeat) && !lastBudgetExceeded
+                && (timed || lastAttempts < MAX_ATTEMPTS));
+
+        if (timed) {
+            board = best;
+            solution = bestSolution;
+            lastRating = bestRating;
+            lastRemovedCells = bestRemoved;
+        }
+        totalCountCalls += lastCountCalls;
+        lastGenerationNanos = System.nanoTime() - startNanos;
+        return new Puzzle(board, solution);
+    }
+
+    private static boolean isBetter(boolean repeat, int rating, int removed,
+                                    boolean bestRepeat, int bestRating, int bestRemoved) {
+        if (repeat != bestRepeat) return !repeat;
+        if (rating != bestRating) return rating > bestRating;
+        return removed > bestRemoved;
+    }
+
+    /**
+     * Generates a unique-solution puzzle on any {@link BoardGeometry}, with
+     * roughly {@code emptyShare} of the cells empty. The solution is the
+     * geometry's pattern grid with rows shuffled within bands, columns within
+     * stacks and digits relabelled; cells are then dug in random order while
+     * {@link DlxSolver} still finds exactly one solution. Such puzzles are
+     * not rated, since {@link LogicalSolver} only handles 9x9 boards.
+     */
+    public int[][] generate(BoardGeometry geometry, double emptyShare, SplittableRandom random) {
+        int n = geometry.getSize();
+        if (dlx == null || !dlx.getGeometry().equals(geometry)) dlx = new DlxSolver(geometry);
+
+        int[][] pattern = new int[n][n];
+        geometry.fillPattern(pattern);
+        int[] rows = shuffledWithinGroups(n, geometry.getBoxRows(), random);
+        int[] cols = shuffledWithinGroups(n, geometry.getBoxCols(), random);
+        int[] digits = new int[n + 1];
+        for (int d = 1; d <= n; d++) {
+            int j = 1 + random.nextInt(d);
+            digits[d] = digits[j];
+            digits[j] = d;
+        }
+        int[][] board = new int[n][n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) board[row][col] = digits[pattern[rows[row]][cols[col]]];
+        }
+
+        int[] order = new int[n * n];
+        for (int i = 0; i < order.length; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        int target = (int) (order.length * emptyShare), empty = 0;
+        for (int i = 0; i < order.length && empty < target; i++) {
+            int row = order[i] / n, col = order[i] % n, value = board[row][col];
+            board[row][col] = 0;
+            if (dlx.hasUniqueSolution(board)) empty++;
+            else board[row][col] = value;
+        }
+        return board;
+    }
+
+    // A permutation of 0..n-1 that only moves indices within consecutive groups of groupSize
+    private static int[] shuffledWithinGroups(int n, int groupSize, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int start = i - i % groupSize, j = start + random.nextInt(i - start + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        return order;
+    }
+
+    private void fillDiagonal(int[][] board, SplittableRandom random) {
+        for (int i = 0; i < 9; i += 3) {
+            fillBox(board, i, i, random);
+        }
+    }
+
+    private void fillBox(int[][] board, int row, int col, SplittableRandom random) {
+        int num;
+        for (int i = 0; i < 3; i++)
+            for (int j = 0; j < 3; j++) {
+                do {
+                    num = random.nextInt(9) + 1;
+                } while (!isUnusedInBox(board, row, col, num));
+                board[row + i][col + j] = num;
+            }
+    }
+
+    private boolean isUnusedInBox(int[][] board, int rowStart, int colStart, int num) {
+        for (int i = 0; i < 3; i++)
+            for (int j = 0; j < 3; j++)
+                if (board[rowStart + i][colStart + j] == num)
+                    return false;
+        return true;
+    }
+
+    private boolean solve(int[][] board) {
+        return solver.solve(board);
+    }
+
+    /**
+     * Digs cells in random order, keeping a removal only while the puzzle
+     * still has exactly one solution and its rating stays within
+     * {@code maxRating}. Stops as soon as the rating reaches
+     * {@code minRating}, when every cell has been tried or when the time
+     * budget runs out after at least {@link #MIN_DUG_CELLS} removals, and
+     * returns the rating of the resulting puzzle.
+     */
+    private int removeCells(int[][] board, int minRating, int maxRating, SplittableRandom random) {
+        int[] order = new int[81];
+        for (int i = 0; i < 81; i++) order[i] = i;
+        for (int i = 80; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int rating = 0;
+        lastRemovedCells = 0;
+        for (int i = 0; i < 81 && rating < minRating; i++) {
+            if (timed && lastRemovedCells >= MIN_DUG_CELLS && System.nanoTime() - deadlineNanos > 0) {
+                lastBudgetExceeded = true;
+                break;
+            }
+            int row = order[i] / 9, col = order[i] % 9;
+            int value = board[row][col];
+            board[row][col] = 0;
+
+            lastCountCalls++;
+            if (!solver.hasUniqueSolution(board)) {
+                board[row][col] = value;
+                continue;
+            }
+            lastGradeCalls++;
+            int candidateRating = grader.grade(board);
+            if (candidateRating == LogicalSolver.UNSOLVABLE || candidateRating > maxRating) {
+                board[row][col] = value;
+                continue;
+            }
+            rating = candidateRating;
+            lastRemovedCells++;
+        }
+        return rating;
+    }
+
+    /** Number of solution-counting calls made by the last {@link #generate}. */
+    public int getLastCountCalls() {
+        return lastCountCalls;
+    }
+
+    /** Number of grading calls made by the last {@link #generate}. */
+    public int getLastGradeCalls() {
+        return lastGradeCalls;
+    }
+
+    /** Number of solution grids the last {@link #generate} had to dig before hitting the band. */
+    public int getLastAttempts() {
+        return lastAttempts;
+    }
+
+    /** How many of the last {@link #generate}'s attempts started from a transformed grid. */
+    public int getLastTransformedGrids() {
+        return lastTransformedGrids;
+    }
+
+    /** How many puzzles the last {@link #generate} threw away because they were in the seen index. */
+    public int getLastRepeats() {
+        return lastRepeats;
+    }
+
+    public int getLastRating() {
+        return lastRating;
+    }
+
+    public int getLastRemovedCells() {
+        return lastRemovedCells;
+    }
+
+    public long getLastGenerationNanos() {
+        return lastGenerationNanos;
+    }
+
+    /** True when the last {@link #generate} stopped digging because it ran out of time. */
+    public boolean wasLastBudgetExceeded() {
+        return lastBudgetExceeded;
+    }
+
+    public long getTotalCountCalls() {
+        return totalCountCalls;
+    }
+}
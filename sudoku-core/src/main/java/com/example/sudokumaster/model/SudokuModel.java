@@ -0,0 +1,174 @@
+package com.example.sudokumaster.model;
+
+public class SudokuModel {
+    private final SudokuBoard board = new SudokuBoard();
+    private final SudokuCell[][] cells = new SudokuCell[9][9];
+    private int version;
+    // Packed solution (row * 9 + col) and how many entries currently disagree with it
+    private byte[] solution;
+    private int wrongCount;
+
+    public SudokuModel() {
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                cells[i][j] = new SudokuCell(board, i, j);
+            }
+        }
+    }
+
+    public void generateBoard(int[][] generatedBoard) {
+        board.load(generatedBoard);
+        solution = null;
+        wrongCount = 0;
+        version++;
+    }
+
+    /** Loads the puzzle's givens and keeps its solution for checking entries. */
+    public void generateBoard(Puzzle puzzle) {
+        board.load(puzzle.getGivens());
+        solution = puzzle.getSolution();
+        wrongCount = 0;
+        version++;
+    }
+
+    public SudokuCell[][] getBoard() {
+        return cells;
+    }
+
+    public SudokuBoard getPackedBoard() {
+        return board;
+    }
+
+    public int getValue(int row, int col) {
+        return board.getValue(row, col);
+    }
+
+    public boolean isFixed(int row, int col) {
+        return board.isFixed(row, col);
+    }
+
+    public void setValue(int row, int col, int value) {
+        if (row >= 0 && row < 9 && col >= 0 && col < 9) {
+            if (solution != null && !board.isFixed(row, col)) {
+                int expected = solution[row * 9 + col];
+                int current = board.getValue(row, col);
+                if (current != 0 && current != expected) wrongCount--;
+                if (value != 0 && value != expected) wrongCount++;
+            }
+            board.setValue(row, col, value);
+            version++;
+        }
+    }
+
+    public boolean hasSolution() {
+        return solution != null;
+    }
+
+    /** The packed solution (row * 9 + col), or null when none is known; callers must not modify it. */
+    public byte[] getSolution() {
+        return solution;
+    }
+
+    /** The digit the solution has in the cell, or 0 when no solution is known. */
+    public int getSolutionValue(int row, int col) {
+        return solution == null ? 0 : solution[row * 9 + col];
+    }
+
+    /** True when the cell holds an entry that disagrees with the solution. */
+    public boolean isWrong(int row, int col) {
+        int value = board.getValue(row, col);
+        return solution != null && value != 0 && value != solution[row * 9 + col];
+    }
+
+    public int getWrongCount() {
+        return wrongCount;
+    }
+
+    /**
+     * True when every cell is filled and matches the solution. Without a known
+     * solution a full, conflict-free board counts as solved.
+     */
+    public boolean isSolved() {
+        if (!board.isFull()) return false;
+        return solution != null ? wrongCount == 0 : isValidFull();
+    }
+
+    private boolean isValidFull() {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (isConflict(row, col)) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Pencil marks of the cell as a 9-bit mask (bit 0 is digit 1). */
+    public int getNotes(int row, int col) {
+        return board.getNotes(row, col);
+    }
+
+    /** Changes whenever a cell's value changes or a new board is loaded, for caching derived results. */
+    public int getVersion() {
+        return version;
+    }
+
+    /** Copies the current values, givens and entries alike, into a new 9x9 array. */
+    public int[][] copyValues() {
+        int[][] values = new int[9][9];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                values[row][col] = board.getValue(row, col);
+            }
+        }
+        return values;
+    }
+
+    /** Copies the givens into a new 9x9 array, with 0 for every editable cell. */
+    public int[][] copyGivens() {
+        int[][] givens = new int[9][9];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (board.isFixed(row, col)) givens[row][col] = board.getValue(row, col);
+            }
+        }
+        return givens;
+    }
+
+    public boolean isMoveValid(int row, int col, int value) {
+        return board.isMoveValid(row, col, value);
+    }
+
+    /** Candidate digits of an editable cell as a 9-bit mask; 0 for fixed cells. */
+    public int getCandidateMask(int row, int col) {
+        return board.isFixed(row, col) ? 0 : board.getCandidateMask(row, col);
+    }
+
+    /** True when the cell holds a digit that another cell in its row, column or box also holds. */
+    public boolean isConflict(int row, int col) {
+        int value = board.getValue(row, col);
+        return value != 0 && (board.getCandidateMask(row, col) & (1 << (value - 1))) == 0;
+    }
+
+    /** Next empty cell after {@code cell} (row * 9 + col), wrapping around; -1 when the board is full. */
+    public int nextEmptyCell(int cell) {
+        return board.nextEmpty(cell);
+    }
+
+    /** Previous empty cell before {@code cell}, wrapping around; -1 when the board is full. */
+    public int previousEmptyCell(int cell) {
+        return board.previousEmpty(cell);
+    }
+
+    /** The empty cell with the fewest candidates, ties going to the first after {@code cell}; -1 when full. */
+    public int mostConstrainedCell(int cell) {
+        return board.mostConstrainedEmpty(cell);
+    }
+
+    public int getEmptyCount() {
+        return board.getEmptyCount();
+    }
+
+    public boolean isBoardFull() {
+        return board.isFull();
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.sudokumaster.model;
+
+import java.util.Arrays;
+
+/**
+ * Constraint-propagation solver for 9x9 boards.
+ *
+ * Keeps the used digits of every row, column and box as 9-bit masks, fills
+ * naked and hidden singles before branching, branches on the cell with the
+ * fewest candidates and undoes placements through a trail instead of copying
+ * the grid. An instance holds only primitive arrays that are reused between
+ * calls, so solving does not allocate; instances are not thread-safe.
+ */
+public class SudokuSolver {
+    private static final int ALL = 0x1FF;
+
+    private static final int[] ROW_OF = Units.ROW_OF;
+    private static final int[] COL_OF = Units.COL_OF;
+    private static final int[] BOX_OF = Units.BOX_OF;
+    private static final int[] UNITS = Units.CELLS;
+
+    private final byte[] grid = new byte[81];
+    private final short[] rowUsed = new short[9];
+    private final short[] colUsed = new short[9];
+    private final short[] boxUsed = new short[9];
+    private final byte[] trail = new byte[81];
+    private int trailSize;
+    private int emptyCount;
+    private int solutionLimit;
+    private int solutionCount;
+    // Copy of the first solution, kept only for solveAndCount
+    private final byte[] firstSolution = new byte[81];
+    private boolean keepFirst;
+
+    /**
+     * Solves the board in place. Returns false and leaves the board untouched
+     * when the givens conflict or the puzzle has no solution.
+     */
+    public boolean solve(int[][] board) {
+        if (!load(board)) return false;
+        solutionLimit = 1;
+        solutionCount = 0;
+        if (!search()) return false;
+        for (int cell = 0; cell < 81; cell++) {
+            board[ROW_OF[cell]][COL_OF[cell]] = grid[cell];
+        }
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the board, stopping as soon as {@code limit} of
+     * them have been found. Passing a limit of 2 is the cheapest way to check
+     * that a puzzle is unique. The board is not modified.
+     */
+    public int countSolutions(int[][] board, int limit) {
+        if (limit <= 0 || !load(board)) return 0;
+        solutionLimit = limit;
+        solutionCount = 0;
+        search();
+        return solutionCount;
+    }
+
+    /**
+     * Solves and checks uniqueness in one search: counts the solutions up to
+     * {@code limit} like {@link #countSolutions} and, when there is at least
+     * one, fills the board with the first solution found.
+     */
+    public int solveAndCount(int[][] board, int limit) {
+        if (limit <= 0 || !load(board)) return 0;
+        solutionLimit = limit;
+        solutionCount = 0;
+        keepFirst = true;
+        search();
+        keepFirst = false;
+        if (solutionCount > 0) {
+            for (int cell = 0; cell < 81; cell++) {
+                board[ROW_OF[cell]][COL_OF[cell]] = firstSolution[cell];
+            }
+        }
+        return solutionCount;
+    }
+
+    public boolean hasUniqueSolution(int[][] board) {
+        return countSolutions(board, 2) == 1;
+    }
+
+    private boolean load(int[][] board) {
+        Arrays.fill(rowUsed, (short) 0);
+        Arrays.fill(colUsed, (short) 0);
+        Arrays.fill(boxUsed, (short) 0);
+        trailSize = 0;
+        emptyCount = 81;
+        for (int cell = 0; cell < 81; cell++) {
+            int value = board[ROW_OF[cell]][COL_OF[cell]];
+            grid[cell] = 0;
+            if (value == 0) continue;
+            if (value < 0 || value > 9 || (candidates(cell) & (1 << (value - 1))) == 0) {
+                return false;
+            }
+            place(cell, value);
+        }
+        // Givens are not part of the search, so they never get undone
+        trailSize = 0;
+        return true;
+    }
+
+    private int candidates(int cell) {
+        return ~(rowUsed[ROW_OF[cell]] | colUsed[COL_OF[cell]] | boxUsed[BOX_OF[cell]]) & ALL;
+    }
+
+    private void place(int cell, int digit) {
+        int bit = 1 << (digit - 1);
+        grid[cell] = (byte) digit;
+        rowUsed[ROW_OF[cell]] |= bit;
+        colUsed[COL_OF[cell]] |= bit;
+        boxUsed[BOX_OF[cell]] |= bit;
+        trail[trailSize++] = (byte) cell;
+        emptyCount--;
+    }
+
+    private void undoTo(int mark) {
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            int bit = ~(1 << (grid[cell] - 1));
+            grid[cell] = 0;
+            rowUsed[ROW_OF[cell]] &= bit;
+            colUsed[COL_OF[cell]] &= bit;
+            boxUsed[BOX_OF[cell]] &= bit;
+            emptyCount++;
+        }
+    }
+
+    /**
+     * Returns true once the solution limit is reached, leaving the last
+     * solution found in the grid.
+     */
+    private boolean search() {
+        int mark = trailSize;
+        if (!propagate()) {
+            undoTo(mark);
+            return false;
+        }
+        if (emptyCount == 0) {
+            if (++solutionCount == 1 && keepFirst) System.arraycopy(grid, 0, firstSolution, 0, 81);
+            if (solutionCount >= solutionLimit) return true;
+            undoTo(mark);
+            return false;
+        }
+
+        int best = -1, bestCount = 10;
+        for (int cell = 0; cell < 81 && bestCount > 2; cell++) {
+            if (grid[cell] != 0) continue;
+            int count = Integer.bitCount(candidates(cell));
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+            }
+        }
+
+        int branch = trailSize;
+        int cand = candidates(best);
+        while (cand != 0) {
+            int bit = cand & -cand;
+            cand ^= bit;
+            place(best, Integer.numberOfTrailingZeros(bit) + 1);
+            if (search()) return true;
+            undoTo(branch);
+        }
+        undoTo(mark);
+        return false;
+    }
+
+    /**
+     * Places naked and hidden singles until none are left. Returns false as
+     * soon as a cell has no candidate or a digit has no place in a unit.
+     */
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed && emptyCount > 0) {
+            changed = false;
+
+            for (int cell = 0; cell < 81; cell++) {
+                if (grid[cell] != 0) continue;
+                int cand = candidates(cell);
+                if (cand == 0) return false;
+                if ((cand & (cand - 1)) == 0) {
+                    place(cell, Integer.numberOfTrailingZeros(cand) + 1);
+                    changed = true;
+                }
+            }
+
+            for (int unit = 0; unit < 27; unit++) {
+                int base = unit * 9;
+                int once = 0, twice = 0, used = 0;
+                for (int i = 0; i < 9; i++) {
+                    int cell = UNITS[base + i];
+                    if (grid[cell] != 0) {
+                        used |= 1 << (grid[cell] - 1);
+                    } else {
+                        int cand = candidates(cell);
+                        twice |= once & cand;
+                        once |= cand;
+                    }
+                }
+                if ((once | used) != ALL) return false;
+
+                int singles = once & ~twice & ~used;
+                while (singles != 0) {
+                    int bit = singles & -singles;
+                    singles ^= bit;
+                    int target = -1;
+                    for (int i = 0; i < 9; i++) {
+                        int cell = UNITS[base + i];
+                        if (grid[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    // An earlier single in this unit took the only spot for this digit
+                    if (target < 0) return false;
+                    place(target, Integer.numberOfTrailingZeros(bit) + 1);
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+}
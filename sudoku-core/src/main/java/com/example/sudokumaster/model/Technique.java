@@ -0,0 +1,21 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Human solving techniques known to {@link LogicalSolver}, in the order they
+ * are tried. The cost is what one application adds to a puzzle's rating.
+ */
+public enum Technique {
+    NAKED_SINGLE(1),
+    HIDDEN_SINGLE(2),
+    POINTING(8),
+    BOX_LINE_REDUCTION(10),
+    NAKED_PAIR(12),
+    HIDDEN_PAIR(16),
+    X_WING(30);
+
+    public final int cost;
+
+    Technique(int cost) {
+        this.cost = cost;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Formats countdown times as "mm:ss" into a caller-owned char buffer, so a
+ * timer that updates every second does not build a new String each time.
+ */
+public final class TimerText {
+    /** Characters written by {@link #format}; size buffers to at least this. */
+    public static final int LENGTH = 5;
+
+    private TimerText() {
+    }
+
+    /**
+     * Writes the seconds as minutes and seconds, two digits each (minutes are
+     * capped at 99), and returns the number of chars written.
+     */
+    public static int format(int totalSeconds, char[] buffer) {
+        int seconds = Math.max(0, totalSeconds);
+        int minutes = Math.min(99, seconds / 60);
+        seconds %= 60;
+        buffer[0] = (char) ('0' + minutes / 10);
+        buffer[1] = (char) ('0' + minutes % 10);
+        buffer[2] = ':';
+        buffer[3] = (char) ('0' + seconds / 10);
+        buffer[4] = (char) ('0' + seconds % 10);
+        return LENGTH;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.sudokumaster.model;
+
+/**
+ * Lookup tables for the 9x9 grid, shared by the solvers. Cells are numbered
+ * 0..80 in reading order; units are the 9 rows, then the 9 columns, then the
+ * 9 boxes.
+ */
+final class Units {
+    static final int[] ROW_OF = new int[81];
+    static final int[] COL_OF = new int[81];
+    static final int[] BOX_OF = new int[81];
+    // 27 units of 9 cells each, indexed [unit * 9 + i]
+    static final int[] CELLS = new int[27 * 9];
+    // The 20 cells sharing a row, column or box with a cell, indexed [cell * 20 + i]
+    static final int[] PEERS = new int[81 * 20];
+
+    static {
+        for (int cell = 0; cell < 81; cell++) {
+            int row = cell / 9, col = cell % 9;
+            ROW_OF[cell] = row;
+            COL_OF[cell] = col;
+            BOX_OF[cell] = (row / 3) * 3 + col / 3;
+        }
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                CELLS[i * 9 + j] = i * 9 + j;
+                CELLS[(9 + i) * 9 + j] = j * 9 + i;
+                CELLS[(18 + i) * 9 + j] = ((i / 3) * 3 + j / 3) * 9 + (i % 3) * 3 + j % 3;
+            }
+        }
+        for (int cell = 0; cell < 81; cell++) {
+            int n = 0;
+            for (int other = 0; other < 81; other++) {
+                if (other != cell && (ROW_OF[other] == ROW_OF[cell]
+                        || COL_OF[other] == COL_OF[cell]
+                        || BOX_OF[other] == BOX_OF[cell])) {
+                    PEERS[cell * 20 + n++] = other;
+                }
+            }
+        }
+    }
+
+    private Units() {}
+}
@@ -0,0 +1,34 @@
+package com.example.sudokumaster.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class BatchGeneratorTest {
+    // Spans more than one window
+    private static final int COUNT = BatchGenerator.WINDOW + 40;
+
+    @Test
+    public void outputDoesNotDependOnThreadCount() {
+        assertArrayEquals(generate(1), generate(3));
+    }
+
+    private static long[] generate(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long[] fingerprints = new long[COUNT];
+            int[] next = {0};
+            new BatchGenerator(pool).generate(COUNT, 1, 42, (index, puzzle) -> {
+                assertEquals(next[0]++, index);
+                fingerprints[index] = BatchGenerator.fingerprint(puzzle.getGivens());
+            });
+            assertEquals(COUNT, next[0]);
+            return fingerprints;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.sudokumaster.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+public class BoardGeometryTest {
+
+    @Test
+    public void picksNearSquareBoxes() {
+        assertEquals(BoardGeometry.of(2, 2), BoardGeometry.forSize(4));
+        assertEquals(BoardGeometry.of(2, 3), BoardGeometry.forSize(6));
+        assertEquals(BoardGeometry.STANDARD, BoardGeometry.forSize(9));
+        assertEquals(BoardGeometry.of(3, 4), BoardGeometry.forSize(12));
+        assertEquals(BoardGeometry.of(5, 5), BoardGeometry.forSize(25));
+    }
+
+    @Test
+    public void rejectsSizesWithoutTwoByTwoBoxes() {
+        for (int size : new int[]{1, 2, 3, 5, 7, 11, 13, 17, 19, 23}) {
+            assertThrows(IllegalArgumentException.class, () -> BoardGeometry.forSize(size));
+        }
+        assertThrows(IllegalArgumentException.class, () -> BoardGeometry.of(1, 9));
+    }
+}
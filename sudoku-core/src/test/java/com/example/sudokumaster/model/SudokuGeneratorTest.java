@@ -0,0 +1,51 @@
+package com.example.sudokumaster.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class SudokuGeneratorTest {
+
+    @Test
+    public void tinyBudgetStillDigsThePuzzle() {
+        SudokuGenerator generator = new SudokuGenerator(1);
+        SudokuSolver solver = new SudokuSolver();
+        for (int difficulty = 1; difficulty <= 3; difficulty++) {
+            for (int i = 0; i < 50; i++) {
+                int[][] givens = generator.generate(difficulty).getGivens();
+                int count = 0;
+                for (int[] row : givens) {
+                    for (int value : row) if (value != 0) count++;
+                }
+                assertTrue("difficulty " + difficulty + " left " + count + " givens",
+                        count <= 81 - SudokuGenerator.MIN_DUG_CELLS);
+                assertTrue(solver.hasUniqueSolution(givens));
+            }
+        }
+    }
+
+    @Test
+    public void generatesUniquePuzzlesOnOtherSizes() {
+        SudokuGenerator generator = new SudokuGenerator();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int size : new int[]{4, 6, 12, 16}) {
+            BoardGeometry geometry = BoardGeometry.forSize(size);
+            DlxSolver solver = new DlxSolver(geometry);
+            int[][] puzzle = generator.generate(geometry, 0.5, random);
+            assertEquals(size, puzzle.length);
+            assertTrue(solver.hasUniqueSolution(puzzle));
+
+            int[][] solved = new int[size][];
+            for (int row = 0; row < size; row++) solved[row] = puzzle[row].clone();
+            assertTrue(solver.solve(solved));
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    if (puzzle[row][col] != 0) assertEquals(puzzle[row][col], solved[row][col]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+plugins {
+    java
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":sudoku-core"))
+}
+
+tasks.register<JavaExec>("batchSolve") {
+    description = "Solves a puzzle file: -Pinput=<file> -Poutput=<file> [-Pthreads=<n>]"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.example.sudokumaster.tools.BatchSolve")
+    workingDir = rootDir
+    args(listOfNotNull(findProperty("input"), findProperty("output"), findProperty("threads")))
+}
@@ -0,0 +1,279 @@
+package com.example.sudokumaster.tools;
+
+import com.example.sudokumaster.model.LogicalSolver;
+import com.example.sudokumaster.model.SudokuSolver;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves, grades and validates a file of puzzles, one per line in the usual
+ * 81-character form ('1'-'9' for givens, '0' or '.' for empty cells; anything
+ * after the 81st character is ignored). Blank lines and lines starting with
+ * '#' are skipped.
+ *
+ * Every other line gets one tab-separated output line, in input order: the
+ * solution (or "invalid" when the line cannot be parsed), the number of
+ * solutions capped at 2, the {@link LogicalSolver} rating of unique puzzles
+ * ("-" otherwise) and the microseconds spent on the puzzle.
+ *
+ * The input is memory-mapped and parsed straight into boards in batches.
+ * A fixed set of batches cycles between the reader, a pool of solver
+ * threads and the writer, which bounds memory however large the file is and
+ * lets the writer emit batches in order as they complete.
+ *
+ * Usage: BatchSolve input-file output-file [threads]
+ */
+public class BatchSolve {
+    private static final int BATCH_SIZE = 1024;
+    // Longest output line: 81 cells, a count, a rating and a time, with separators
+    private static final int MAX_RESULT = 128;
+    // Bytes of input mapped at once; lines never straddle two windows
+    private static final int WINDOW = 1 << 28;
+    private static final byte[] INVALID = {'i', 'n', 'v', 'a', 'l', 'i', 'd'};
+
+    private static final ThreadLocal<SudokuSolver> SOLVER = ThreadLocal.withInitial(SudokuSolver::new);
+    private static final ThreadLocal<LogicalSolver> GRADER = ThreadLocal.withInitial(LogicalSolver::new);
+    private static final ThreadLocal<int[][]> WORK = ThreadLocal.withInitial(() -> new int[9][9]);
+
+    private static final class Batch {
+        final int[][][] boards = new int[BATCH_SIZE][9][9];
+        final boolean[] valid = new boolean[BATCH_SIZE];
+        final byte[] text = new byte[BATCH_SIZE * MAX_RESULT];
+        int size;
+        int textLength;
+        int unique;
+        int multiple;
+        int unsolvable;
+        int invalid;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final BlockingQueue<Batch> free;
+    private final BlockingQueue<Future<Batch>> pending;
+
+    private long unique;
+    private long multiple;
+    private long unsolvable;
+    private long invalid;
+
+    private BatchSolve(int threads) {
+        int inFlight = threads * 2 + 2;
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(inFlight), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-solve");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        free = new ArrayBlockingQueue<>(inFlight);
+        pending = new ArrayBlockingQueue<>(inFlight + 1);
+        for (int i = 0; i < inFlight; i++) free.add(new Batch());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BatchSolve <input-file> <output-file> [threads]");
+            System.exit(2);
+        }
+        int threads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        BatchSolve run = new BatchSolve(threads);
+        long start = System.nanoTime();
+        try (FileChannel in = FileChannel.open(Paths.get(args[0]), StandardOpenOption.READ);
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16)) {
+            run.process(in, out);
+        } finally {
+            run.executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long total = run.unique + run.multiple + run.unsolvable + run.invalid;
+        System.out.printf("Processed %d puzzles in %d ms (%.0f puzzles/s): %d unique, %d with several solutions, "
+                        + "%d unsolvable, %d invalid%n",
+                total, elapsed / 1_000_000, total * 1e9 / Math.max(1, elapsed),
+                run.unique, run.multiple, run.unsolvable, run.invalid);
+    }
+
+    private void process(FileChannel in, OutputStream out) throws IOException, InterruptedException {
+        IOException[] writeError = new IOException[1];
+        Thread writer = new Thread(() -> {
+            try {
+                writeResults(out);
+            } catch (IOException e) {
+                writeError[0] = e;
+            }
+        }, "batch-writer");
+        writer.start();
+        try {
+            read(in);
+        } finally {
+            // A null batch marks the end of the input
+            pending.put(CompletableFuture.completedFuture(null));
+            writer.join();
+        }
+        if (writeError[0] != null) throw writeError[0];
+    }
+
+    private void read(FileChannel in) throws IOException, InterruptedException {
+        long size = in.size(), position = 0;
+        Batch batch = free.take();
+        while (position < size) {
+            int length = (int) Math.min(WINDOW, size - position);
+            boolean last = position + length == size;
+            ByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int start = 0;
+            while (start < length) {
+                int end = start;
+                while (end < length && window.get(end) != '\n') end++;
+                // A line cut off by the window is read again from the next one
+                if (end == length && !last) break;
+                batch = addLine(window, start, end, batch);
+                start = end + 1;
+            }
+            if (start == 0) throw new IOException("Line longer than " + WINDOW + " bytes at offset " + position);
+            position += Math.min(start, length);
+        }
+        if (batch.size > 0) submit(batch);
+        else free.put(batch);
+    }
+
+    private Batch addLine(ByteBuffer window, int start, int end, Batch batch) throws InterruptedException {
+        if (end > start && window.get(end - 1) == '\r') end--;
+        if (end == start || window.get(start) == '#') return batch;
+
+        int index = batch.size++;
+        batch.valid[index] = parse(window, start, end, batch.boards[index]);
+        if (batch.size == BATCH_SIZE) {
+            submit(batch);
+            return free.take();
+        }
+        return batch;
+    }
+
+    private static boolean parse(ByteBuffer window, int start, int end, int[][] board) {
+        if (end - start < 81) return false;
+        for (int cell = 0; cell < 81; cell++) {
+            int c = window.get(start + cell);
+            if (c >= '1' && c <= '9') board[cell / 9][cell % 9] = c - '0';
+            else if (c == '0' || c == '.') board[cell / 9][cell % 9] = 0;
+            else return false;
+        }
+        return true;
+    }
+
+    private void submit(Batch batch) throws InterruptedException {
+        pending.put(executor.submit(() -> solve(batch)));
+    }
+
+    private static Batch solve(Batch batch) {
+        SudokuSolver solver = SOLVER.get();
+        LogicalSolver grader = GRADER.get();
+        int[][] work = WORK.get();
+        byte[] text = batch.text;
+        int pos = 0;
+        for (int i = 0; i < batch.size; i++) {
+            if (!batch.valid[i]) {
+                batch.invalid++;
+                System.arraycopy(INVALID, 0, text, pos, INVALID.length);
+                pos += INVALID.length;
+                text[pos++] = '\t';
+                text[pos++] = '-';
+                text[pos++] = '\t';
+                text[pos++] = '-';
+                text[pos++] = '\t';
+                text[pos++] = '-';
+                text[pos++] = '\n';
+                continue;
+            }
+
+            long started = System.nanoTime();
+            int[][] board = batch.boards[i];
+            for (int row = 0; row < 9; row++) System.arraycopy(board[row], 0, work[row], 0, 9);
+            int count = solver.solveAndCount(work, 2);
+            int rating = count == 1 ? grader.grade(board) : LogicalSolver.UNSOLVABLE;
+            long micros = (System.nanoTime() - started) / 1_000;
+
+            if (count == 0) batch.unsolvable++;
+            else if (count == 1) batch.unique++;
+            else batch.multiple++;
+
+            for (int cell = 0; cell < 81; cell++) {
+                text[pos++] = count == 0 ? (byte) '.' : (byte) ('0' + work[cell / 9][cell % 9]);
+            }
+            text[pos++] = '\t';
+            text[pos++] = (byte) ('0' + count);
+            text[pos++] = '\t';
+            if (rating == LogicalSolver.UNSOLVABLE) text[pos++] = '-';
+            else pos = putNumber(text, pos, rating);
+            text[pos++] = '\t';
+            pos = putNumber(text, pos, micros);
+            text[pos++] = '\n';
+        }
+        batch.textLength = pos;
+        return batch;
+    }
+
+    /** Writes the decimal digits of a non-negative number and returns the new position. */
+    private static int putNumber(byte[] out, int pos, long value) {
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    /**
+     * Writes completed batches in submission order and hands them back to the
+     * reader. After a failure it keeps draining, so the reader never waits
+     * for a batch that will not come back, and reports the failure at the end.
+     */
+    private void writeResults(OutputStream out) throws IOException {
+        IOException error = null;
+        while (true) {
+            Batch batch;
+            try {
+                batch = pending.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } catch (ExecutionException e) {
+                if (error == null) error = new IOException("Solving failed", e.getCause());
+                free.add(new Batch());
+                continue;
+            }
+            if (batch == null) break;
+
+            if (error == null) {
+                try {
+                    out.write(batch.text, 0, batch.textLength);
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            unique += batch.unique;
+            multiple += batch.multiple;
+            unsolvable += batch.unsolvable;
+            invalid += batch.invalid;
+            batch.size = 0;
+            batch.unique = batch.multiple = batch.unsolvable = batch.invalid = 0;
+            free.add(batch);
+        }
+        if (error != null) throw error;
+        out.flush();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.sudokumaster.tools;
+
+import com.example.sudokumaster.model.BatchGenerator;
+import com.example.sudokumaster.model.PuzzleBank;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Generates the puzzle bank shipped with the app. The same count and seed
+ * always produce the same file, so the build can cache it.
+ *
+ * Usage: BuildPuzzleBank output-file puzzles-per-difficulty seed
+ */
+public class BuildPuzzleBank {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BuildPuzzleBank <output-file> <puzzles-per-difficulty> <seed>");
+            System.exit(2);
+        }
+        File output = new File(args[0]);
+        int count = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+
+        BatchGenerator generator = new BatchGenerator();
+        byte[][] records = new byte[3][];
+        long start = System.nanoTime();
+        for (int difficulty = 1; difficulty <= 3; difficulty++) {
+            byte[] block = new byte[count * PuzzleBank.RECORD_SIZE];
+            generator.generate(count, difficulty, seed + difficulty,
+                    (index, puzzle) -> PuzzleBank.encode(puzzle, block, index * PuzzleBank.RECORD_SIZE));
+            records[difficulty - 1] = block;
+        }
+
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            PuzzleBank.write(out, records);
+        }
+        System.out.printf("Wrote %d puzzles to %s in %d ms%n",
+                3 * count, output, (System.nanoTime() - start) / 1_000_000);
+    }
+}